@@ -0,0 +1,540 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Books and cancels reservations safely across threads.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The booking engine class.
+ * 
+ * Each room is guarded by one of a fixed set of locks, chosen by the room's
+ * identity. Checking a room's availability and reserving it happen while
+ * holding its lock, so two threads can never book the same nights of a
+ * room, while rooms guarded by different locks are booked in parallel.
+ * 
+ * Group bookings take the locks of all their rooms in ascending lock order,
+ * the one order every caller agrees on, so they can never deadlock with
+ * each other or with single bookings.
+ * 
+ * Rate changes take the same locks, so a reservation is always priced
+ * entirely before or entirely after a change. A hotel's base price needs no
+ * room lock, as bookings read the hotel's price table only once.
+ * 
+ * All reservation and price changes must go through the engine for this to
+ * hold.
+ * 
+ * Changes made on the worker owning a hotel take none of the hotel's room
+ * locks, since the worker runs the hotel's changes one at a time; see
+ * HotelWorkers. Such a hotel must then only be changed through its worker.
+ * 
+ * pause() stops the workers, then takes every room lock, then the lock of
+ * the system's hotels, then each hotel's own lock, so nothing changes while
+ * its task runs.
+ */
+public class BookingEngine
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static BookingEngine engine;  // The single instance of the engine.
+
+    private final ReentrantLock[] locks;  // The room locks.
+
+    private static final int NUM_OF_LOCKS = 64; // The number of room locks.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the booking engine.
+     */
+    private BookingEngine()
+    {
+        this.locks = new ReentrantLock[NUM_OF_LOCKS];
+
+        for (int i = 0; i < NUM_OF_LOCKS; i++)
+        {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the single instance of the booking engine.
+     * 
+     * @return {BookingEngine}
+     */
+    public static synchronized BookingEngine getInstance()
+    {
+        if (BookingEngine.engine == null)
+            BookingEngine.engine = new BookingEngine();
+
+        return BookingEngine.engine;
+    }
+
+    /**
+     * Returns the index of the lock guarding a room.
+     * 
+     * @param room {Room} The room.
+     * @return {int}
+     */
+    public int getLockIndex(Room room)
+    {
+        // Spreads the identity hash so neighbouring objects use different locks.
+        int hash = System.identityHashCode(room);
+        hash ^= (hash >>> 16);
+
+        return (hash & 0x7fffffff) % NUM_OF_LOCKS;
+    }
+
+    /**
+     * Returns the result of reading a room while holding its lock, so that
+     * no reservation of the room changes while it is read.
+     * 
+     * @param room {Room} The room.
+     * @param reader {Function<Room, T>} Reads the room.
+     * @return {T}
+     */
+    public <T> T read(Room room, Function<Room, T> reader)
+    {
+        ReentrantLock lock = locks[getLockIndex(room)];
+        lock.lock();
+
+        try
+        {
+            return reader.apply(room);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the result of reading a hotel while holding the locks of all
+     * of its rooms and then the hotel's own lock, so that neither the hotel
+     * nor any of its rooms changes while it is read.
+     * 
+     * Bookings take the hotel's lock while holding their room's, so the room
+     * locks must be taken first. If the hotel's rooms change before its lock
+     * is taken, the locks of the new rooms are taken instead.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param reader {Function<Hotel, T>} Reads the hotel.
+     * @return {T}
+     */
+    public <T> T read(Hotel hotel, Function<Hotel, T> reader)
+    {
+        while (true)
+        {
+            Room[] rooms = getRooms(hotel);
+            boolean[] isNeeded = lockAll(rooms);
+
+            try
+            {
+                synchronized (hotel)
+                {
+                    if (Arrays.equals(rooms, getRooms(hotel)))
+                        return reader.apply(hotel);
+                }
+            }
+            finally
+            {
+                unlockAll(isNeeded);
+            }
+        }
+    }
+
+    /**
+     * Returns the result of running a task while no change is made to any
+     * hotel, room, or reservation of the system, such as to checkpoint the
+     * journal.
+     * 
+     * Must not be called by a hotel's worker.
+     * 
+     * @param task {Supplier<T>} The task.
+     * @return {T}
+     */
+    public <T> T pause(Supplier<T> task)
+    {
+        return HotelWorkers.getInstance().pause(() ->
+        {
+            boolean[] isNeeded = new boolean[NUM_OF_LOCKS];
+            Arrays.fill(isNeeded, true);
+
+            for (int i = 0; i < NUM_OF_LOCKS; i++)
+            {
+                locks[i].lock();
+            }
+
+            try
+            {
+                Heap heap = Heap.getInstance();
+
+                // Hotels are only added, removed, and renamed while holding the heap's lock.
+                synchronized (heap)
+                {
+                    return lockHotels(new ArrayList<>(heap.getHotels()), 0, task);
+                }
+            }
+            finally
+            {
+                unlockAll(isNeeded);
+            }
+        });
+    }
+
+    /* --------------------------------- ADDERS --------------------------------- */
+
+    /**
+     * Reserves a room if it is available from the check-in date up to the
+     * night before the check-out date.
+     * 
+     * Returns the reservation, or null if the dates are not available.
+     * 
+     * @param room {Room} The room.
+     * @param guestName {String} The guest name.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {Reservation}
+     */
+    public Reservation reserve(Room room, String guestName, int checkIn, int checkOut)
+    {
+        if (checkIn >= checkOut)
+            return null;
+
+        ReentrantLock lock = lock(room);
+
+        try
+        {
+            if (!room.areDatesAvailable(checkIn, checkOut))
+                return null;
+
+            return room.addReservation(guestName, checkIn, checkOut);
+        }
+        finally
+        {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Reserves every given room, possibly across hotels, from the check-in
+     * date up to the night before the check-out date.
+     * 
+     * Either every room is reserved or none is. Returns the reservations in
+     * the order of the given rooms, or null if a room is not available or is
+     * given more than once.
+     * 
+     * @param rooms {ArrayList<Room>} The rooms.
+     * @param guestName {String} The guest name.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {ArrayList<Reservation>}
+     */
+    public ArrayList<Reservation> reserveGroup(ArrayList<Room> rooms, String guestName,
+                                               int checkIn, int checkOut)
+    {
+        if (rooms.isEmpty() || checkIn >= checkOut ||
+            new HashSet<>(rooms).size() != rooms.size())
+            return null;
+
+        boolean[] isNeeded = lockAll(rooms.toArray(new Room[0]));
+
+        try
+        {
+            for (Room room : rooms)
+            {
+                if (!room.areDatesAvailable(checkIn, checkOut))
+                    return null;
+            }
+
+            ArrayList<Reservation> reservations = new ArrayList<>(rooms.size());
+
+            for (Room room : rooms)
+            {
+                reservations.add(room.addReservation(guestName, checkIn, checkOut));
+            }
+            return reservations;
+        }
+        finally
+        {
+            unlockAll(isNeeded);
+        }
+    }
+
+    /* -------------------------------- REMOVERS -------------------------------- */
+
+    /**
+     * Cancels a reservation.
+     * 
+     * Returns true only if the reservation was still booked.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @return {boolean}
+     */
+    public boolean cancel(Reservation reservation)
+    {
+        Room room = reservation.getRoom();
+        ReentrantLock lock = lock(room);
+
+        try
+        {
+            return room.removeReservation(reservation);
+        }
+        finally
+        {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Cancels a reservation given its id.
+     * 
+     * Returns true only if the reservation was still booked.
+     * 
+     * @param id {long} The reservation's id.
+     * @return {boolean}
+     */
+    public boolean cancel(long id)
+    {
+        Reservation reservation = Heap.getInstance().getReservation(id);
+
+        return reservation != null && cancel(reservation);
+    }
+
+    /**
+     * Moves a hotel's reservations checking out on or before a given date
+     * from its rooms to its history.
+     * 
+     * Returns the number of reservations moved.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param date {int} The date, in epoch days.
+     * @return {int}
+     */
+    public int archive(Hotel hotel, int date)
+    {
+        int num = 0;
+
+        // Takes one room lock at a time, so bookings of other rooms carry on.
+        for (int i = 0; i < hotel.getNumOfRooms(); i++)
+        {
+            Room room = hotel.getRoom(i);
+            ReentrantLock lock = lock(room);
+
+            try
+            {
+                num += room.archiveReservations(date);
+            }
+            finally
+            {
+                unlock(lock);
+            }
+        }
+        Journal.getInstance().logArchiveReservations(hotel, date);
+        return num;
+    }
+
+    /* -------------------------------- UPDATERS -------------------------------- */
+
+    /**
+     * Returns the result of changing a room while holding its lock, so that
+     * no reservation of the room is priced halfway through the change.
+     * 
+     * @param room {Room} The room.
+     * @param updater {Function<Room, T>} Changes the room.
+     * @return {T}
+     */
+    public <T> T update(Room room, Function<Room, T> updater)
+    {
+        ReentrantLock lock = lock(room);
+
+        try
+        {
+            return updater.apply(room);
+        }
+        finally
+        {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Returns the result of changing a hotel while holding the locks of all
+     * of its rooms and then the hotel's own lock, so that no reservation of
+     * the hotel is priced halfway through the change.
+     * 
+     * The hotel's worker only takes the hotel's own lock.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param updater {Function<Hotel, T>} Changes the hotel.
+     * @return {T}
+     */
+    public <T> T update(Hotel hotel, Function<Hotel, T> updater)
+    {
+        if (!HotelWorkers.isWorkerOf(hotel))
+            return read(hotel, updater);
+
+        synchronized (hotel)
+        {
+            return updater.apply(hotel);
+        }
+    }
+
+    /**
+     * Applies a discount code to a reservation.
+     * 
+     * Returns true only if the application of the discount code is successful.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @param code {String} The discount code.
+     * @return {boolean}
+     */
+    public boolean setDiscount(Reservation reservation, String code)
+    {
+        ReentrantLock lock = lock(reservation.getRoom());
+
+        try
+        {
+            return reservation.setDiscount(code);
+        }
+        finally
+        {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Applies a discount code to a reservation given its id.
+     * 
+     * Returns true only if the application of the discount code is successful.
+     * 
+     * @param id {long} The reservation's id.
+     * @param code {String} The discount code.
+     * @return {boolean}
+     */
+    public boolean setDiscount(long id, String code)
+    {
+        Reservation reservation = Heap.getInstance().getReservation(id);
+
+        return reservation != null && setDiscount(reservation, code);
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns the rooms of a hotel as they are at the time of the call.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @return {Room[]}
+     */
+    private static Room[] getRooms(Hotel hotel)
+    {
+        synchronized (hotel)
+        {
+            Room[] rooms = new Room[hotel.getNumOfRooms()];
+
+            for (int i = 0; i < rooms.length; i++)
+            {
+                rooms[i] = hotel.getRoom(i);
+            }
+            return rooms;
+        }
+    }
+
+    /**
+     * Takes the lock guarding a room, unless the calling thread is the
+     * worker owning the room's hotel, and returns the lock taken, or null if
+     * none was.
+     * 
+     * @param room {Room} The room.
+     * @return {ReentrantLock}
+     */
+    private ReentrantLock lock(Room room)
+    {
+        if (HotelWorkers.isWorkerOf(room.getHotel()))
+            return null;
+
+        ReentrantLock lock = locks[getLockIndex(room)];
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Releases a lock taken by lock(Room), if any.
+     * 
+     * @param lock {ReentrantLock} The lock, or null if none was taken.
+     */
+    private static void unlock(ReentrantLock lock)
+    {
+        if (lock != null)
+            lock.unlock();
+    }
+
+    /**
+     * Returns the result of running a task while holding the locks of the
+     * given hotels from a given index onwards.
+     * 
+     * @param hotels {List<Hotel>} The hotels.
+     * @param index {int} The index of the first hotel to lock.
+     * @param task {Supplier<T>} The task.
+     * @return {T}
+     */
+    private static <T> T lockHotels(List<Hotel> hotels, int index, Supplier<T> task)
+    {
+        if (index == hotels.size())
+            return task.get();
+
+        synchronized (hotels.get(index))
+        {
+            return lockHotels(hotels, index + 1, task);
+        }
+    }
+
+    /**
+     * Takes the locks guarding the given rooms in ascending order, the one
+     * order every caller agrees on, and returns which locks were taken.
+     * 
+     * @param rooms {Room[]} The rooms.
+     * @return {boolean[]}
+     */
+    private boolean[] lockAll(Room[] rooms)
+    {
+        boolean[] isNeeded = new boolean[NUM_OF_LOCKS];
+
+        for (Room room : rooms)
+        {
+            isNeeded[getLockIndex(room)] = true;
+        }
+
+        for (int i = 0; i < NUM_OF_LOCKS; i++)
+        {
+            if (isNeeded[i])
+                locks[i].lock();
+        }
+        return isNeeded;
+    }
+
+    /**
+     * Releases the locks taken by lockAll.
+     * 
+     * @param isNeeded {boolean[]} The locks taken.
+     */
+    private void unlockAll(boolean[] isNeeded)
+    {
+        for (int i = NUM_OF_LOCKS - 1; i >= 0; i--)
+        {
+            if (isNeeded[i])
+                locks[i].unlock();
+        }
+    }
+}
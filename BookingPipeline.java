@@ -0,0 +1,426 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Books rooms through a pipeline of stages that work in batches.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The booking pipeline class.
+ * 
+ * Requests are placed in a ring of slots and pass through three stages,
+ * each run by its own thread:
+ * 
+ *   1. Validation checks the dates as Session does and finds the hotel.
+ *   2. Reservation books the room, or the first available room of the
+ *      requested type, and applies the discount code, through the worker
+ *      of each hotel in HotelWorkers, which publishes the hotel's new view.
+ *   3. Completion makes the batch's journal records durable with a single
+ *      sync, and completes the results. If
+ *      the sync fails, the batch's reservations are cancelled first, so no
+ *      caller is told of a failure that left a room booked.
+ * 
+ * Each stage takes every request the previous stage has finished at once,
+ * so a burst of requests costs each stage one wake-up and the journal one
+ * sync. A stage only ever reads requests behind the previous stage's
+ * cursor, and a slot is only reused once the last stage has passed it.
+ */
+public class BookingPipeline
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static BookingPipeline pipeline; // The single instance of the pipeline.
+
+    private final Request[] ring;            // The slots of the requests.
+    private final AtomicLong submitted;      // The number of requests placed in the ring.
+    private final AtomicLong validated;      // The number of requests through stage 1.
+    private final AtomicLong reserved;       // The number of requests through stage 2.
+    private final AtomicLong completed;      // The number of requests through stage 3.
+    private final Thread[] stages;           // The threads of the stages.
+
+    private static final int RING_SIZE = 1 << 12; // The number of slots, a power of 2.
+
+    /**
+     * A booking request and its progress through the stages.
+     */
+    private static class Request
+    {
+        private final String guestName;  // The guest name.
+        private final String hotelName;  // The hotel name.
+        private final String roomName;   // The room name, or null to book by type.
+        private final RoomType type;     // The room type, or null for any type.
+        private final int checkIn;       // The check-in date.
+        private final int checkOut;      // The check-out date.
+        private final String code;       // The discount code, or null for none.
+
+        private Hotel hotel;              // The hotel, once validated.
+        private Reservation reservation;  // The reservation, once reserved.
+        private final CompletableFuture<Reservation> result; // The request's result.
+
+        /**
+         * Constructs a request.
+         * 
+         * @param guestName {String} The guest name.
+         * @param hotelName {String} The hotel name.
+         * @param roomName {String} The room name, or null to book by type.
+         * @param type {RoomType} The room type, or null for any type.
+         * @param checkIn {int} The check-in date.
+         * @param checkOut {int} The check-out date.
+         * @param code {String} The discount code, or null for none.
+         */
+        private Request(String guestName, String hotelName, String roomName, RoomType type,
+                        int checkIn, int checkOut, String code)
+        {
+            this.guestName = guestName;
+            this.hotelName = hotelName;
+            this.roomName = roomName;
+            this.type = type;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.code = code;
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the pipeline and starts its stages.
+     */
+    private BookingPipeline()
+    {
+        this.ring = new Request[RING_SIZE];
+        this.submitted = new AtomicLong();
+        this.validated = new AtomicLong();
+        this.reserved = new AtomicLong();
+        this.completed = new AtomicLong();
+
+        this.stages = new Thread[]
+        {
+            new Thread(() -> runStage(submitted, validated, 1), "booking-validate"),
+            new Thread(() -> runStage(validated, reserved, 2), "booking-reserve"),
+            new Thread(() -> runStage(reserved, completed, 3), "booking-complete")
+        };
+
+        for (Thread stage : stages)
+        {
+            stage.setDaemon(true);
+            stage.start();
+        }
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the single instance of the pipeline.
+     * 
+     * @return {BookingPipeline}
+     */
+    public static synchronized BookingPipeline getInstance()
+    {
+        if (BookingPipeline.pipeline == null)
+            BookingPipeline.pipeline = new BookingPipeline();
+
+        return BookingPipeline.pipeline;
+    }
+
+    /* --------------------------------- ADDERS --------------------------------- */
+
+    /**
+     * Requests a booking of a room from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * If no room name is given, the first available room of the given type is
+     * booked, or of any type if the type is null too. A discount code may be
+     * given, or null for none.
+     * 
+     * The returned future completes with the reservation, or with null if the
+     * dates are not valid, the hotel or room does not exist, or no room is
+     * available. A discount code that cannot be applied leaves the
+     * reservation without it.
+     * 
+     * @param guestName {String} The guest name.
+     * @param hotelName {String} The hotel name.
+     * @param roomName {String} The room name, or null to book by type.
+     * @param type {RoomType} The room type, or null for any type.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @param code {String} The discount code, or null for none.
+     * @return {CompletableFuture<Reservation>}
+     */
+    public CompletableFuture<Reservation> reserve(String guestName, String hotelName,
+                                                  String roomName, RoomType type,
+                                                  int checkIn, int checkOut, String code)
+    {
+        Request request = new Request(guestName, hotelName, roomName, type,
+                                      checkIn, checkOut, code);
+
+        // Claiming and filling a slot is short, so producers simply take turns.
+        synchronized (submitted)
+        {
+            long sequence = submitted.get();
+
+            // Waits while the ring is full.
+            while (sequence - completed.get() >= RING_SIZE)
+            {
+                LockSupport.parkNanos(10_000);
+            }
+            ring[(int) sequence & (RING_SIZE - 1)] = request;
+            submitted.set(sequence + 1);
+        }
+        LockSupport.unpark(stages[0]);
+        return request.result;
+    }
+
+    /* --------------------------------- STAGES --------------------------------- */
+
+    /**
+     * Runs a stage, processing every request the previous stage has finished
+     * as one batch.
+     * 
+     * @param upstream {AtomicLong} The previous stage's cursor.
+     * @param cursor {AtomicLong} The stage's cursor.
+     * @param stage {int} The stage number.
+     */
+    private void runStage(AtomicLong upstream, AtomicLong cursor, int stage)
+    {
+        while (true)
+        {
+            long start = cursor.get();
+            long end = upstream.get();
+
+            if (start == end)
+            {
+                // The previous stage unparks this one after each batch.
+                LockSupport.park(this);
+                continue;
+            }
+
+            switch (stage)
+            {
+                case 1 -> validate(start, end);
+                case 2 -> reserve(start, end);
+                default -> complete(start, end);
+            }
+            cursor.set(end);
+
+            if (stage < stages.length)
+                LockSupport.unpark(stages[stage]);
+        }
+    }
+
+    /**
+     * Validates the dates of a batch of requests and finds their hotels.
+     * 
+     * @param start {long} The first request's sequence.
+     * @param end {long} The sequence after the last request.
+     */
+    private void validate(long start, long end)
+    {
+        // The current date is read once per batch.
+        int today = Session.getToday();
+        Heap heap = Heap.getInstance();
+
+        for (long sequence = start; sequence < end; sequence++)
+        {
+            Request request = ring[(int) sequence & (RING_SIZE - 1)];
+
+            if (request.hotelName != null &&
+                Session.isValidCheckIn(request.checkIn, today) &&
+                Session.isValidCheckOut(request.checkOut, today) &&
+                request.checkIn < request.checkOut)
+                request.hotel = heap.getHotel(request.hotelName);
+        }
+    }
+
+    /**
+     * Reserves the rooms of a batch of valid requests.
+     * 
+     * Each hotel's requests are sent to its worker as one change, and the
+     * stage waits for every worker, so each hotel publishes one new view
+     * per batch.
+     * 
+     * @param start {long} The first request's sequence.
+     * @param end {long} The sequence after the last request.
+     */
+    private void reserve(long start, long end)
+    {
+        HashMap<Hotel, ArrayList<Request>> requestsByHotel = new HashMap<>();
+
+        for (long sequence = start; sequence < end; sequence++)
+        {
+            Request request = ring[(int) sequence & (RING_SIZE - 1)];
+
+            if (request.hotel != null)
+                requestsByHotel.computeIfAbsent(request.hotel, hotel -> new ArrayList<>())
+                               .add(request);
+        }
+
+        HotelWorkers workers = HotelWorkers.getInstance();
+        ArrayList<CompletableFuture<Object>> changes = new ArrayList<>(requestsByHotel.size());
+
+        for (ArrayList<Request> requests : requestsByHotel.values())
+        {
+            String hotelName = requests.get(0).hotel.getName();
+
+            changes.add(workers.submit(hotelName, hotel ->
+            {
+                for (Request request : requests)
+                {
+                    reserve(hotel, request);
+                }
+                return null;
+            }).exceptionally(e ->
+            {
+                for (Request request : requests)
+                {
+                    request.result.completeExceptionally(e);
+                }
+                return null;
+            }));
+        }
+
+        for (CompletableFuture<Object> change : changes)
+        {
+            change.join();
+        }
+    }
+
+    /**
+     * Reserves the room of a valid request, or the first available room of
+     * the requested type, and applies the request's discount code, on the
+     * worker of the request's hotel.
+     * 
+     * The code is applied in the same change as the booking, so the view
+     * published and the journal records synced for the batch both show the
+     * discounted price.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param request {Request} The request.
+     */
+    private static void reserve(Hotel hotel, Request request)
+    {
+        BookingEngine engine = BookingEngine.getInstance();
+
+        try
+        {
+            if (request.roomName != null)
+            {
+                Room room = hotel.getRoom(request.roomName);
+
+                if (room != null)
+                    request.reservation = engine.reserve(room, request.guestName,
+                                                         request.checkIn, request.checkOut);
+            }
+            else
+            {
+                // Another booking may take a room first, so the next one is tried.
+                ArrayList<Room> rooms = hotel.findAvailableRooms(request.checkIn,
+                                                                 request.checkOut,
+                                                                 request.type);
+
+                for (int i = 0; i < rooms.size() && request.reservation == null; i++)
+                {
+                    request.reservation = engine.reserve(rooms.get(i), request.guestName,
+                                                         request.checkIn, request.checkOut);
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            request.result.completeExceptionally(e);
+            return;
+        }
+
+        if (request.reservation == null || request.code == null)
+            return;
+
+        try
+        {
+            engine.setDiscount(request.reservation, request.code);
+        }
+        catch (RuntimeException e)
+        {
+            // The reservation stands without the code.
+        }
+    }
+
+    /**
+     * Makes the journal records of a batch of reservations durable and
+     * completes the results.
+     * 
+     * @param start {long} The first request's sequence.
+     * @param end {long} The sequence after the last request.
+     */
+    private void complete(long start, long end)
+    {
+        IOException error = null;
+
+        try
+        {
+            Journal.getInstance().sync();
+        }
+        catch (IOException e)
+        {
+            error = e;
+            cancel(start, end);
+        }
+
+        for (long sequence = start; sequence < end; sequence++)
+        {
+            int slot = (int) sequence & (RING_SIZE - 1);
+            Request request = ring[slot];
+
+            // Requests that failed in an earlier stage are already complete.
+            if (error != null)
+                request.result.completeExceptionally(error);
+            else
+                request.result.complete(request.reservation);
+
+            // Releases the request so the slot holds nothing once done.
+            ring[slot] = null;
+        }
+    }
+
+    /**
+     * Cancels the reservations of a batch whose journal records could not be
+     * made durable, through the worker of each reservation's hotel.
+     * 
+     * @param start {long} The first request's sequence.
+     * @param end {long} The sequence after the last request.
+     */
+    private void cancel(long start, long end)
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+        ArrayList<Reservation> reservations = new ArrayList<>();
+        ArrayList<CompletableFuture<Boolean>> cancels = new ArrayList<>();
+
+        for (long sequence = start; sequence < end; sequence++)
+        {
+            Reservation reservation = ring[(int) sequence & (RING_SIZE - 1)].reservation;
+
+            if (reservation == null)
+                continue;
+
+            reservations.add(reservation);
+            cancels.add(workers.submit(reservation.getRoom().getHotel().getName(),
+                                       hotel -> engine.cancel(reservation))
+                               .exceptionally(e -> false));
+        }
+
+        for (int i = 0; i < cancels.size(); i++)
+        {
+            // The hotel was renamed or removed meanwhile, so it has no worker to go through.
+            if (cancels.get(i).join() == null)
+                engine.cancel(reservations.get(i));
+        }
+    }
+}
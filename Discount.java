@@ -0,0 +1,286 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Registers and applies the discount codes of the system.
+ */
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The discount class.
+ * 
+ * Every discount code is registered once and given a small id, which
+ * reservations use to track their applied codes as bits of a long. Codes are
+ * resolved to their id with a single hash lookup, and new promotions are
+ * added by registering them rather than by editing Reservation.
+ */
+public class Discount
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    /*
+     * Registry information.
+     */
+    private static volatile Discount[] discounts;                  // The discounts by id.
+    private static final ConcurrentHashMap<String, Integer> ids;  // The discount ids by code.
+
+    private static final int MAX_NUM_OF_DISCOUNTS = 64; // The max number of discounts.
+
+    /*
+     * Discount information.
+     */
+    private final int id;                   // The discount's id.
+    private final String code;              // The discount's code.
+    private final Eligibility eligibility;  // Determines if a stay may use the discount.
+    private final Adjustment adjustment;    // Computes the discounted price.
+
+    /* ------------------------------- INTERFACES ------------------------------- */
+
+    /**
+     * Determines if a stay may use a discount.
+     * 
+     * Only depends on the dates, so it can be evaluated once per reservation.
+     */
+    public interface Eligibility
+    {
+        /**
+         * Returns true only if a stay from the check-in date up to the night
+         * before the check-out date may use the discount.
+         * 
+         * @param checkIn {int} The check-in date.
+         * @param checkOut {int} The check-out date.
+         * @return {boolean}
+         */
+        boolean isEligible(int checkIn, int checkOut);
+    }
+
+    /**
+     * Computes the price of a reservation after a discount.
+     */
+    public interface Adjustment
+    {
+        /**
+         * Returns the discounted total price of a reservation.
+         * 
+         * @param reservation {Reservation} The reservation.
+         * @param totalPrice {double} The current total price.
+         * @return {double}
+         */
+        double apply(Reservation reservation, double totalPrice);
+    }
+
+    /* --------------------------------- CODES ---------------------------------- */
+
+    static
+    {
+        discounts = new Discount[0];
+        ids = new ConcurrentHashMap<>();
+
+        /*
+         * Code: "I_WORK_HERE"
+         * Applies a 10% discount.
+         */
+        register("I_WORK_HERE",
+                 (checkIn, checkOut) -> true,
+                 (reservation, totalPrice) -> totalPrice * 0.90);
+
+        /*
+         * Code: "STAY4_GET1"
+         * The first day is free if there are more than 5 reservation days.
+         */
+        register("STAY4_GET1",
+                 (checkIn, checkOut) -> (checkOut - checkIn) >= 5,
+                 (reservation, totalPrice) -> totalPrice - reservation.getNightlyPrice() *
+                                              reservation.getRate(reservation.getCheckIn()));
+
+        /*
+         * Code: "PAYDAY"
+         * Applies a 7% discount if the reservation dates include the 15th or
+         * 30th of a month. This excludes the check-out date.
+         */
+        register("PAYDAY",
+                 (checkIn, checkOut) -> checkIn < checkOut &&
+                                        getNextPayday(checkIn) < checkOut,
+                 (reservation, totalPrice) -> totalPrice * 0.93);
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a discount given its id, code, eligibility, and adjustment.
+     * 
+     * @param id {int} The discount's id.
+     * @param code {String} The discount's code.
+     * @param eligibility {Eligibility} Determines if a stay may use the discount.
+     * @param adjustment {Adjustment} Computes the discounted price.
+     */
+    private Discount(int id, String code, Eligibility eligibility, Adjustment adjustment)
+    {
+        this.id = id;
+        this.code = code;
+        this.eligibility = eligibility;
+        this.adjustment = adjustment;
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the id of a discount code, or -1 if the code is not registered.
+     * 
+     * @param code {String} The discount code.
+     * @return {int}
+     */
+    public static int getId(String code)
+    {
+        Integer id = ids.get(code);
+
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns a discount given its id, or null if the id is not registered.
+     * 
+     * @param id {int} The discount's id.
+     * @return {Discount}
+     */
+    public static Discount getDiscount(int id)
+    {
+        Discount[] registered = discounts;
+
+        if (id >= 0 && id < registered.length)
+            return registered[id];
+
+        return null;
+    }
+
+    /**
+     * Returns the number of registered discounts.
+     * 
+     * @return {int}
+     */
+    public static int getNumOfDiscounts()
+    {
+        return discounts.length;
+    }
+
+    /**
+     * Returns the ids of the registered discounts that a stay may use, with
+     * bit i set for the discount with id i.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {long}
+     */
+    public static long getEligibleIds(int checkIn, int checkOut)
+    {
+        long eligible = 0L;
+
+        for (Discount discount : discounts)
+        {
+            if (discount.isEligible(checkIn, checkOut))
+                eligible |= 1L << discount.id;
+        }
+        return eligible;
+    }
+
+    /**
+     * Returns the first 15th or 30th of a month on or after a given date.
+     * 
+     * @param date {int} The date, in epoch days.
+     * @return {int}
+     */
+    private static int getNextPayday(int date)
+    {
+        LocalDate day = LocalDate.ofEpochDay(date);
+
+        if (day.getDayOfMonth() <= 15)
+            return (int) day.withDayOfMonth(15).toEpochDay();
+
+        // February has no 30th, so its next payday is March 15.
+        if (day.getDayOfMonth() <= 30 && day.lengthOfMonth() >= 30)
+            return (int) day.withDayOfMonth(30).toEpochDay();
+
+        return (int) day.plusMonths(1).withDayOfMonth(15).toEpochDay();
+    }
+
+    /**
+     * Returns the discount's id.
+     * 
+     * @return {int}
+     */
+    public int getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Returns the discount's code.
+     * 
+     * @return {String}
+     */
+    public String getCode()
+    {
+        return this.code;
+    }
+
+    /* --------------------------------- ADDERS --------------------------------- */
+
+    /**
+     * Registers a discount code.
+     * 
+     * Returns the code's id, or -1 if the code is already registered or the
+     * maximum number of discounts is reached.
+     * 
+     * @param code {String} The discount code.
+     * @param eligibility {Eligibility} Determines if a stay may use the discount.
+     * @param adjustment {Adjustment} Computes the discounted price.
+     * @return {int}
+     */
+    public static synchronized int register(String code, Eligibility eligibility,
+                                            Adjustment adjustment)
+    {
+        Discount[] registered = discounts;
+
+        if (ids.containsKey(code) || registered.length == MAX_NUM_OF_DISCOUNTS)
+            return -1;
+
+        Discount[] grown = new Discount[registered.length + 1];
+        System.arraycopy(registered, 0, grown, 0, registered.length);
+        grown[registered.length] = new Discount(registered.length, code,
+                                                eligibility, adjustment);
+
+        discounts = grown;
+        ids.put(code, registered.length);
+        return registered.length;
+    }
+
+    /* -------------------------------- UPDATERS -------------------------------- */
+
+    /**
+     * Returns the discounted total price of a reservation.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @param totalPrice {double} The current total price.
+     * @return {double}
+     */
+    public double apply(Reservation reservation, double totalPrice)
+    {
+        return adjustment.apply(reservation, totalPrice);
+    }
+
+    /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Determines if a stay may use the discount.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {boolean}
+     */
+    public boolean isEligible(int checkIn, int checkOut)
+    {
+        return eligibility.isEligible(checkIn, checkOut);
+    }
+}
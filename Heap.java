@@ -2,13 +2,24 @@
  * @author Stephen M. Borja
  * @author Mariella Jeanne A. Dellosa
  * 
- * Contains the data currently being processed by the system.
+ * Contains the hotels shared by every session of the system.
  */
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The heap class.
+ * 
+ * The data being processed by a single user interaction is kept by that
+ * interaction's session instead; see Session.
  */
 public class Heap {
 
@@ -17,26 +28,22 @@ public class Heap {
     /*
      * Program information.
      */
-    private static Heap heap;         // The single instance of the heap class.
-    private static boolean isRunning; // Determines if the program is running.
-
-    /* 
-     * State information.
-     */
-    private static Context state;    // The system's current state.
-    private static boolean hadError; // Determines if there was an input error.
-    private static String feedback;  // The most recent feedback by the system.
+    private static Heap heap;                  // The single instance of the heap class.
+    private static volatile boolean isRunning; // Determines if the program is running.
 
     /*
      * Data containers.
+     * 
+     * Reads need no locking; changes to the hotels are made while holding
+     * the heap's lock so that the list and the index stay in step. Replacing
+     * every hotel swaps in new, complete containers, so readers never see a
+     * registry halfway through being refilled.
      */
-    private static ArrayList<Hotel> hotels; // The system's current hotels.
-    private static Hotel hotel;             // The hotel being processed.
-    private static Room room;               // The room being processed.
-    private static Reservation reservation; // The reservation being processed.
-    private static String text;             // The text being processed.
-    private static int checkIn;             // The check-in date being processed.
-    private static int checkOut;            // The check-out date being processed.
+    private static volatile CopyOnWriteArrayList<Hotel> hotels;            // The system's current hotels.
+    private static volatile ConcurrentHashMap<String, Hotel> hotelsByName; // The hotels by name.
+    private static volatile Set<Hotel> listedHotels;                       // The hotels, by identity.
+    private static volatile ConcurrentHashMap<Long, Reservation> reservationsById; // The reservations by id.
+    private static volatile ConcurrentSkipListMap<String, Set<Reservation>> reservationsByGuest; // The reservations by guest name.
     
     /* ------------------------------- CONSTRUCTOR ------------------------------ */
 
@@ -47,11 +54,13 @@ public class Heap {
     {
         Heap.isRunning = true;
 
-        Heap.state = Context.MAIN_MENU;
-        Heap.hadError = false;
-        Heap.feedback = "";
+        Heap.hotels = new CopyOnWriteArrayList<>();
+        Heap.hotelsByName = new ConcurrentHashMap<>();
+        Heap.listedHotels = ConcurrentHashMap.newKeySet();
+        Heap.reservationsById = new ConcurrentHashMap<>();
 
-        Heap.hotels = new ArrayList<>();
+        // Guest names are sorted ignoring case, so names sharing a prefix are adjacent.
+        Heap.reservationsByGuest = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
     }
 
     /* --------------------------------- GETTERS -------------------------------- */
@@ -61,7 +70,7 @@ public class Heap {
      * 
      * @return {Heap}
      */
-    public static Heap getInstance()
+    public static synchronized Heap getInstance()
     {
         if (Heap.heap == null)
             Heap.heap = new Heap();
@@ -69,26 +78,6 @@ public class Heap {
         return Heap.heap;
     }
 
-    /**
-     * Returns the feedback.
-     * 
-     * @return {String}
-     */
-    public String getFeedback()
-    {
-        return Heap.feedback;
-    }
-
-    /**
-     * Returns the current system state.
-     * 
-     * @return {State}
-     */
-    public Context getState()
-    {
-        return Heap.state;
-    }
-
     /**
      * Returns the number of hotels in the system.
      * 
@@ -114,247 +103,353 @@ public class Heap {
     }
 
     /**
-     * Returns a hotel of the system given its name.
+     * Returns a read-only view of the system's hotels.
      * 
-     * @param name {String} The hotel name.
-     * @return {Hotel}
-     */
-    public Hotel getHotel(String name)
-    {
-        for (int i = 0; i < getNumOfHotels(); i++)
-        {
-            if (getHotel(i).getName().equals(name))
-                return getHotel(i);
-        }
-        return null;
-    }
-
-    /**
-     * Returns the hotel being processed.
+     * Iterating over the view sees the hotels as they were when the
+     * iteration began, even if hotels are added or removed meanwhile.
      * 
-     * @return {Hotel}
+     * @return {List<Hotel>}
      */
-    public Hotel getHotel()
+    public List<Hotel> getHotels()
     {
-        return Heap.hotel;
+        return Collections.unmodifiableList(Heap.hotels);
     }
 
     /**
-     * Returns the room being processed.
+     * Returns a hotel of the system given its name.
      * 
-     * @return {Room}
+     * @param name {String} The hotel name.
+     * @return {Hotel}
      */
-    public Room getRoom()
+    public Hotel getHotel(String name)
     {
-        return Heap.room;
+        return Heap.hotelsByName.get(name);
     }
 
     /**
-     * Returns the reservation being processed.
+     * Returns a reservation of the system given its id, or null if there is
+     * no such reservation.
      * 
+     * @param id {long} The reservation's id.
      * @return {Reservation}
      */
-    public Reservation getReservation()
+    public Reservation getReservation(long id)
     {
-        return Heap.reservation;
+        return Heap.reservationsById.get(id);
     }
 
     /**
-     * Returns the text being processed.
+     * Returns the reservations of a guest across every hotel, ordered by
+     * check-in date.
      * 
-     * @return {String}
-     */
-    public String getText()
-    {
-        return Heap.text;
-    }
-
-    /**
-     * Returns the check-in date being processed.
+     * Guest names are matched ignoring case.
      * 
-     * @return {int}
+     * @param guestName {String} The guest name.
+     * @return {ArrayList<Reservation>}
      */
-    public int getCheckIn()
+    public ArrayList<Reservation> getReservations(String guestName)
     {
-        return Heap.checkIn;
+        Set<Reservation> found = Heap.reservationsByGuest.get(guestName);
+        ArrayList<Reservation> reservations = new ArrayList<>();
+
+        if (found != null)
+        {
+            reservations.addAll(found);
+            reservations.sort(Comparator.comparingInt(Reservation::getCheckIn)
+                                        .thenComparingLong(Reservation::getId));
+        }
+        return reservations;
     }
 
     /**
-     * Returns the check-out date being processed.
+     * Returns the names of the guests with reservations whose names start
+     * with a given prefix, in alphabetical order.
      * 
-     * @return {int}
+     * Names are matched ignoring case. Returns at most the given number of
+     * names.
+     * 
+     * @param prefix {String} The prefix.
+     * @param limit {int} The max number of names to return.
+     * @return {ArrayList<String>}
      */
-    public int getCheckOut()
+    public ArrayList<String> findGuestNames(String prefix, int limit)
     {
-        return Heap.checkOut;
+        ArrayList<String> names = new ArrayList<>();
+
+        for (String name : Heap.reservationsByGuest.subMap(prefix, true,
+                                                           prefix + Character.MAX_VALUE,
+                                                           false).keySet())
+        {
+            if (names.size() >= limit)
+                break;
+
+            names.add(name);
+        }
+        return names;
     }
 
     /* --------------------------------- SETTERS -------------------------------- */
 
     /**
-     * Sets the program's error state.
+     * Replaces the hotels of the system, such as with those of a snapshot.
+     * 
+     * Returns true only if the hotel names are unique.
      * 
-     * @param hadError {boolean} The error state.
+     * @param newHotels {ArrayList<Hotel>} The hotels.
+     * @return {boolean}
      */
-    public void setErrorState(boolean hadError)
+    public synchronized boolean setHotels(ArrayList<Hotel> newHotels)
     {
-        Heap.hadError = hadError;
+        HashMap<String, Hotel> newHotelsByName = new HashMap<>();
+
+        for (Hotel hotel : newHotels)
+        {
+            if (newHotelsByName.put(hotel.getName(), hotel) != null)
+                return false;
+        }
+
+        ConcurrentHashMap<Long, Reservation> newReservationsById = new ConcurrentHashMap<>();
+        ConcurrentSkipListMap<String, Set<Reservation>> newReservationsByGuest =
+            new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        for (Hotel hotel : newHotels)
+        {
+            for (int i = 0; i < hotel.getNumOfRooms(); i++)
+            {
+                Room room = hotel.getRoom(i);
+
+                for (int j = 0; j < room.getNumOfReservations(); j++)
+                {
+                    addToIndexes(room.getReservation(j), newReservationsById,
+                                 newReservationsByGuest);
+                }
+            }
+        }
+
+        Set<Hotel> newListedHotels = ConcurrentHashMap.newKeySet();
+        newListedHotels.addAll(newHotels);
+
+        // The indexes come first, so a reader finding a new hotel finds its reservations.
+        Heap.reservationsById = newReservationsById;
+        Heap.reservationsByGuest = newReservationsByGuest;
+        Heap.listedHotels = newListedHotels;
+        Heap.hotelsByName = new ConcurrentHashMap<>(newHotelsByName);
+        Heap.hotels = new CopyOnWriteArrayList<>(newHotels);
+        return true;
     }
 
+    /* --------------------------------- ADDERS --------------------------------- */
+
     /**
-     * Sets the feedback being processed.
+     * Adds a hotel to the system.
      * 
-     * @param feedback {String} The feedback.
+     * Returns true only if the given name is unique and the number of rooms to be
+     * added is within 1 to the max number of hotel rooms.
+     * 
+     * @param name {String} The hotel name.
+     * @param basePrice {int} The base price.
+     * @param nRooms {int} The number of hotel rooms.
+     * @return {Hotel}
      */
-    public void setFeedback(String feedback)
+    public synchronized boolean addHotel(String name, double basePrice, int nRooms)
     {
-        Heap.feedback = feedback;
+        if (nRooms < 1 || nRooms > Hotel.MAX_NUM_OF_ROOMS || Heap.hotelsByName.containsKey(name))
+            return false;
+
+        Hotel hotel = new Hotel(name, basePrice, nRooms);
+
+        Heap.listedHotels.add(hotel);
+        Heap.hotels.add(hotel);
+        Heap.hotelsByName.put(name, hotel);
+        Journal.getInstance().logAddHotel(name, basePrice, nRooms);
+        return true;
     }
 
     /**
-     * Sets the hotel being processed given the index.
+     * Adds a reservation to the indexes of reservations.
      * 
-     * @param index {int} The index.
+     * Called by the reservation's room. Reservations of hotels not in the
+     * system, such as those of a snapshot being loaded, are left out.
+     * 
+     * Hotels are looked up by identity rather than by name, so a hotel being
+     * renamed meanwhile is still found.
+     * 
+     * @param reservation {Reservation} The reservation.
      */
-    public void setHotel(int index)
+    public void addToIndex(Reservation reservation)
     {
-        Heap.hotel = getHotel(index);
+        Hotel hotel = reservation.getRoom().getHotel();
+
+        if (hotel != null && Heap.listedHotels.contains(hotel))
+            addToIndexes(reservation);
     }
 
     /**
-     * Sets the hotel being processed given the name.
+     * Adds a reservation to the indexes of reservations by id and by guest
+     * name.
      * 
-     * @param name {String} The hotel name.
+     * @param reservation {Reservation} The reservation.
      */
-    public void setHotel(String name)
+    private static void addToIndexes(Reservation reservation)
     {
-        Heap.hotel = getHotel(name);
+        addToIndexes(reservation, Heap.reservationsById, Heap.reservationsByGuest);
     }
 
     /**
-     * Sets the hotel being processed given the hotel object.
+     * Adds a reservation to given indexes of reservations by id and by guest
+     * name.
      * 
-     * @param hotel {Hotel} The hotel.
+     * Each guest's set is locked on its own while changed, so only changes
+     * for the same guest wait on each other. A set dropped from the index
+     * meanwhile is replaced by a new one.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @param byId {ConcurrentHashMap<Long, Reservation>} The index by id.
+     * @param byGuest {ConcurrentSkipListMap<String, Set<Reservation>>} The index by guest name.
      */
-    public void setHotel(Hotel hotel)
+    private static void addToIndexes(Reservation reservation,
+                                     ConcurrentHashMap<Long, Reservation> byId,
+                                     ConcurrentSkipListMap<String, Set<Reservation>> byGuest)
     {
-        Heap.hotel = hotel;
+        byId.put(reservation.getId(), reservation);
+
+        while (true)
+        {
+            Set<Reservation> reservations =
+                byGuest.computeIfAbsent(reservation.getGuestName(),
+                                        name -> ConcurrentHashMap.newKeySet());
+
+            synchronized (reservations)
+            {
+                if (byGuest.get(reservation.getGuestName()) == reservations)
+                {
+                    reservations.add(reservation);
+                    return;
+                }
+            }
+        }
     }
 
+    /* -------------------------------- REMOVERS -------------------------------- */
+
     /**
-     * Sets the room being processed.
+     * Removes a hotel given the name.
      * 
-     * @param room {Room} The room.
+     * Returns true if the given name exists; false otherwise. 
      */
-    public void setRoom(Room room)
+    public synchronized boolean removeHotel(String name)
     {
-        Heap.room = room;
+        Hotel hotelToRemove = Heap.hotelsByName.remove(name);
+
+        if (hotelToRemove != null)
+        {
+            Heap.listedHotels.remove(hotelToRemove);
+            Heap.hotels.remove(hotelToRemove);
+            updateIndex(hotelToRemove, false);
+            Journal.getInstance().logRemoveHotel(name);
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Sets the reservation being processed.
+     * Removes a reservation from the indexes of reservations.
+     * 
+     * Called by the reservation's room.
      * 
      * @param reservation {Reservation} The reservation.
      */
-    public void setReservation(Reservation reservation)
+    public void removeFromIndex(Reservation reservation)
     {
-        Heap.reservation = reservation;
+        removeFromIndexes(reservation);
     }
 
     /**
-     * Sets the text being processed.
+     * Removes a reservation from the indexes of reservations by id and by
+     * guest name.
      * 
-     * @param text {String} The text.
+     * @param reservation {Reservation} The reservation.
      */
-    public void setText(String text)
+    private static void removeFromIndexes(Reservation reservation)
     {
-        Heap.text = text;
-    }
+        ConcurrentSkipListMap<String, Set<Reservation>> byGuest = Heap.reservationsByGuest;
 
-    /**
-     * Sets the check-in date being processed.
-     * 
-     * Returns true only if the given check-in date is within 1 to 30.
-     * 
-     * @param checkIn {int} The check-in date.
-     * @return {boolean}
-     */
-    public boolean setCheckIn(int checkIn)
-    {
-        if (checkIn >= 1 && checkIn <= 30)
+        if (!Heap.reservationsById.remove(reservation.getId(), reservation))
+            return;
+
+        Set<Reservation> reservations = byGuest.get(reservation.getGuestName());
+
+        if (reservations == null)
+            return;
+
+        synchronized (reservations)
         {
-            Heap.checkIn = checkIn;
-            return true;
+            // Guests without reservations are dropped from the index.
+            if (reservations.remove(reservation) && reservations.isEmpty())
+                byGuest.remove(reservation.getGuestName(), reservations);
         }
-        return false;
     }
 
+    /* -------------------------------- UPDATERS -------------------------------- */
+
     /**
-     * Sets the check-out date being processed.
+     * Renames a hotel of the system.
      * 
-     * Returns true only if the given check-out date is within 2 to 31.
+     * Returns true only if the hotel exists and the new name is unique.
      * 
-     * @param checkOut {int} The check-out date.
+     * @param name {String} The hotel's current name.
+     * @param newName {String} The hotel's new name.
      * @return {boolean}
      */
-    public boolean setCheckOut(int checkOut)
+    public synchronized boolean renameHotel(String name, String newName)
     {
-        if (checkOut >= 2 && checkOut <= 31)
-        {
-            Heap.checkOut = checkOut;
-            return true;
-        }
-        return false;
-    }
+        Hotel hotelToRename = Heap.hotelsByName.get(name);
 
-    /* --------------------------------- ADDERS --------------------------------- */
+        if (hotelToRename == null || Heap.hotelsByName.containsKey(newName))
+            return false;
+
+        Heap.hotelsByName.remove(name);
+        hotelToRename.setName(newName);
+        Heap.hotelsByName.put(newName, hotelToRename);
+        Journal.getInstance().logRenameHotel(name, newName);
+        return true;
+    }
 
     /**
-     * Adds a hotel to the system.
-     * 
-     * Returns true only if the given name is unique and the number of rooms to be
-     * added is within 1 to 50.
+     * Adds or removes every reservation of a hotel to or from the indexes of
+     * reservations.
      * 
-     * @param name {String} The hotel name.
-     * @param basePrice {int} The base price.
-     * @param nRooms {int} The number of hotel rooms.
-     * @return {Hotel}
+     * @param hotel {Hotel} The hotel.
+     * @param isAdded {boolean} Determines if the reservations are added.
      */
-    public boolean addHotel(String name, double basePrice, int nRooms)
+    public void updateIndex(Hotel hotel, boolean isAdded)
     {
-        if (nRooms < 1 || nRooms > 50)
-            return false;
-            
-        for (int i = 0; i < getNumOfHotels(); i++)
+        for (int i = 0; i < hotel.getNumOfRooms(); i++)
         {
-            if (getHotel(i).getName().equals(name)) 
-                return false;
+            updateIndex(hotel.getRoom(i), isAdded);
         }
-        Heap.hotels.add(new Hotel(name, basePrice, nRooms));
-        return true;
     }
 
-    /* -------------------------------- REMOVERS -------------------------------- */
-
     /**
-     * Removes a hotel given the name.
+     * Adds or removes every reservation of a room to or from the indexes of
+     * reservations.
      * 
-     * Returns true if the given name exists; false otherwise. 
+     * @param room {Room} The room.
+     * @param isAdded {boolean} Determines if the reservations are added.
      */
-    public boolean removeHotel(String name)
+    public void updateIndex(Room room, boolean isAdded)
     {
-        Hotel hotelToRemove = getHotel(name);
-
-        if (hotelToRemove != null)
+        for (int i = 0; i < room.getNumOfReservations(); i++)
         {
-            Heap.hotels.remove(hotelToRemove);
-            return true;
+            Reservation reservation = room.getReservation(i);
+
+            if (isAdded)
+                addToIndexes(reservation);
+            else
+                removeFromIndexes(reservation);
         }
-        return false;
     }
 
-    /* -------------------------------- UPDATERS -------------------------------- */
-
     /**
      * Notifies the program to be terminated.
      */
@@ -374,14 +469,4 @@ public class Heap {
     {
         return Heap.isRunning;
     }
-
-    /**
-     * Identifies if there was an input error.
-     * 
-     * @return {boolean}
-     */
-    public boolean hadError()
-    {
-        return Heap.hadError;
-    }
 }
@@ -6,6 +6,7 @@
  */
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * The hotel class.
@@ -16,10 +17,21 @@ public class Hotel
 
     private String name;                  // Hotel's name.
     private double basePrice;             // Hotel's base price.
+    private volatile double[] prices;     // Hotel's room prices by type; replaced, never changed.
+    private volatile long priceVersion;   // Hotel's number of price changes.
     private final ArrayList<Room> rooms;  // Hotel's rooms.
+    private final HashMap<String, Room> roomsByName; // Hotel's rooms by name.
+    private final HashMap<Integer, long[]> occupancy; // Hotel's booked rooms per night.
+    private final HashMap<Integer, int[]> bookedByType; // Hotel's booked rooms per night, by type.
+    private final int[] numOfRoomsByType; // Hotel's rooms, by type.
+    private final ReservationStore history; // Hotel's completed reservations.
+    private volatile HotelView view;      // Hotel's latest published view.
+    private volatile double totalPrice;   // Hotel's total earnings.
+    private volatile int numOfAvailRooms; // Hotel's rooms without reservations.
     
     private static final double DEFAULT_BASE_PRICE = 1299.0; // The default price.
-    private static final int MAX_NUM_OF_ROOMS = 50; // The max number of rooms.
+    static final int MAX_NUM_OF_ROOMS = 500;        // The max number of rooms.
+    private static final int NUM_OF_WORDS = (MAX_NUM_OF_ROOMS + 63) / 64;
 
     /* ------------------------------- CONSTRUCTOR ------------------------------ */
 
@@ -34,7 +46,21 @@ public class Hotel
     {
         this.name = name;
         this.basePrice = basePrice;
+        this.prices = getPrices(basePrice);
+        this.priceVersion = 0;
         this.rooms = new ArrayList<>();
+        this.roomsByName = new HashMap<>();
+
+        /*
+         * Bit i of a night's words is set if the room with index i is booked
+         * on that night. Only nights with a booked room are kept.
+         */
+        this.occupancy = new HashMap<>();
+
+        // Kept for the same nights as the occupancy, indexed by type ordinal.
+        this.bookedByType = new HashMap<>();
+        this.numOfRoomsByType = new int[RoomType.values().length];
+        this.history = new ReservationStore();
     }
 
     /* --------------------------------- GETTERS -------------------------------- */
@@ -59,6 +85,27 @@ public class Hotel
         return this.basePrice;
     }
 
+    /**
+     * Returns the price of the hotel's rooms of a given type.
+     * 
+     * @param type {RoomType} The room type.
+     * @return {double}
+     */
+    public double getPrice(RoomType type)
+    {
+        return this.prices[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of times the hotel's prices have changed.
+     * 
+     * @return {long}
+     */
+    public long getPriceVersion()
+    {
+        return this.priceVersion;
+    }
+
     /**
      * Returns the default base price of a hotel.
      * 
@@ -86,16 +133,12 @@ public class Hotel
     /**
      * Returns a room given its name.
      * 
-     * @return name {String} The room's name.
+     * @param name {String} The room's name.
+     * @return {Room}
      */
     public Room getRoom(String name)
     {
-        for (int i = 0; i < getNumOfRooms(); i++)
-        {
-            if (getRoom(i).getName().equals(name))
-                return getRoom(i);
-        }
-        return null;
+        return roomsByName.get(name);
     }
 
     /**
@@ -108,6 +151,32 @@ public class Hotel
         return this.rooms.size();
     }
 
+    /**
+     * Returns the number of rooms of a given type.
+     * 
+     * @param type {RoomType} The room type.
+     * @return {int}
+     */
+    public synchronized int getNumOfRooms(RoomType type)
+    {
+        return this.numOfRoomsByType[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of rooms of a given type that are not booked on a
+     * given night.
+     * 
+     * @param type {RoomType} The room type.
+     * @param night {int} The night, in epoch days.
+     * @return {int}
+     */
+    public synchronized int getNumOfFreeRooms(RoomType type, int night)
+    {
+        int[] booked = bookedByType.get(night);
+
+        return numOfRoomsByType[type.ordinal()] - (booked != null ? booked[type.ordinal()] : 0);
+    }
+
     /**
      * Returns the number of rooms without reservations.
      * 
@@ -115,14 +184,102 @@ public class Hotel
      */
     public int getNumOfAvailRooms()
     {
-        int num = 0;
+        return this.numOfAvailRooms;
+    }
 
-        for (int i = 0; i < getNumOfRooms(); i++)
+    /**
+     * Returns the hotel's completed reservations that were moved out of its
+     * rooms.
+     * 
+     * @return {ReservationStore}
+     */
+    public ReservationStore getHistory()
+    {
+        return this.history;
+    }
+
+    /**
+     * Returns the hotel's latest published view, or null if none was
+     * published yet.
+     * 
+     * @return {HotelView}
+     */
+    public HotelView getView()
+    {
+        return this.view;
+    }
+
+    /**
+     * Returns the hotel's total reservation prices.
+     * 
+     * @return {double}
+     */
+    public double getTotalPrice()
+    {
+        return this.totalPrice;
+    }
+
+    /**
+     * Returns the rooms of a given type that are available from the check-in
+     * date up to the night before the check-out date.
+     * 
+     * Returns rooms of any type if the given type is null.
+     * 
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @param type {RoomType} The room type.
+     * @return {ArrayList<Room>}
+     */
+    public synchronized ArrayList<Room> findAvailableRooms(int checkIn, int checkOut, RoomType type)
+    {
+        ArrayList<Room> available = new ArrayList<>();
+
+        if (checkIn >= checkOut)
+            return available;
+
+        // Skips the scan if some night has no free room of the type.
+        for (int night = checkIn; type != null && night < checkOut; night++)
         {
-            if(getRoom(i).getNumOfReservations() == 0)
-                num++;
+            if (getNumOfFreeRooms(type, night) == 0)
+                return available;
         }
-        return num;
+
+        // Collects the rooms booked on any night of the stay.
+        long[] booked = new long[NUM_OF_WORDS];
+
+        for (int night = checkIn; night < checkOut; night++)
+        {
+            long[] words = occupancy.get(night);
+
+            if (words != null)
+            {
+                for (int w = 0; w < NUM_OF_WORDS; w++)
+                {
+                    booked[w] |= words[w];
+                }
+            }
+        }
+
+        for (int w = 0; w * 64 < getNumOfRooms(); w++)
+        {
+            // Walks the free rooms of the word that exist in the hotel.
+            int base = w * 64;
+            long free = ~booked[w];
+
+            if (getNumOfRooms() - base < 64)
+                free &= (1L << Math.max(getNumOfRooms() - base, 0)) - 1;
+
+            while (free != 0)
+            {
+                Room room = rooms.get(base + Long.numberOfTrailingZeros(free));
+
+                if (type == null || room.type() == type)
+                    available.add(room);
+
+                free &= free - 1;
+            }
+        }
+        return available;
     }
 
     /**
@@ -140,6 +297,9 @@ public class Hotel
     /**
      * Sets the hotel name.
      * 
+     * Hotels in the system must be renamed through Heap.renameHotel so that
+     * the system's name index stays current.
+     * 
      * @param name {String} The hotel name.
      */
     public void setName(String name)
@@ -150,11 +310,78 @@ public class Hotel
     /**
      * Sets the base price.
      * 
+     * Rooms without their own price read the new prices the next time they
+     * are priced, so no room is touched here. Reservations keep the prices
+     * they were made with, and a booking made meanwhile reads the price table
+     * once, so it is priced entirely at the old or the new prices.
+     * 
      * @param basePrice {double} The base price.
      */
-    public void setBasePrice(double basePrice)
+    public synchronized void setBasePrice(double basePrice)
     {
         this.basePrice = basePrice;
+
+        // Published before the version, so readers of the new version see the new prices.
+        this.prices = getPrices(basePrice);
+        this.priceVersion++;
+        Journal.getInstance().logSetBasePrice(this, basePrice);
+    }
+
+    /**
+     * Sets the rate of every date from a given date up to the day before
+     * another for the rooms of a given type.
+     * 
+     * Sets the rate for rooms of any type if the given type is null.
+     * 
+     * Returns true if the rate modification is successful.
+     * 
+     * @param from {int} The first date, in epoch days.
+     * @param to {int} The day after the last date, in epoch days.
+     * @param rate {double} The rate.
+     * @param type {RoomType} The room type.
+     * @return {boolean}
+     */
+    public boolean setDateRates(int from, int to, double rate, RoomType type)
+    {
+        return BookingEngine.getInstance().update(this, hotel ->
+                                                  hotel.applyDateRates(from, to, rate, type));
+    }
+
+    /**
+     * Sets the rates of the rooms of a given type, or of any type if the
+     * given type is null, while the hotel's rooms cannot be booked.
+     * 
+     * @param from {int} The first date, in epoch days.
+     * @param to {int} The day after the last date, in epoch days.
+     * @param rate {double} The rate.
+     * @param type {RoomType} The room type.
+     * @return {boolean}
+     */
+    private synchronized boolean applyDateRates(int from, int to, double rate, RoomType type)
+    {
+        /*
+         * The rate must be within 50% to 150%.
+         */
+        if (from >= to || rate < .5 || rate > 1.5)
+            return false;
+
+        for (Room room : rooms)
+        {
+            if (type == null || room.type() == type)
+                room.applyDateRates(from, to, rate);
+        }
+        Journal.getInstance().logSetDateRates(this, type, from, to, rate);
+        return true;
+    }
+
+    /**
+     * Publishes a new view of the hotel.
+     * 
+     * @param view {HotelView} The view.
+     */
+    public void setView(HotelView view)
+    {
+        this.view = view;
     }
 
     /* --------------------------------- ADDERS --------------------------------- */
@@ -165,19 +392,26 @@ public class Hotel
      * Returns true only if the given number of rooms is within
      * the maximum post-addition.
      * 
-     * @param type {String} The type of rooms to add.
+     * @param type {RoomType} The type of rooms to add.
      * @param num {int} The number of rooms to add.
      * @return {boolean}
      */
-    public boolean addRooms(String type, int num)
+    public synchronized boolean addRooms(RoomType type, int num)
     {
         if (num >= 1 && getNumOfRooms() + num <= Hotel.MAX_NUM_OF_ROOMS)
         {
             for (int i = 0; i < num; i++)
             {
-                String roomName = String.valueOf(('A' + (i/5)) + "-" + ((i + 1) % 5));
-                rooms.add(new Room(roomName, type, basePrice));
+                int index = getNumOfRooms();
+                String roomName = getRoomName(index);
+                Room room = new Room(this, index, roomName, type);
+
+                rooms.add(room);
+                roomsByName.put(roomName, room);
             }
+            numOfRoomsByType[type.ordinal()] += num;
+            numOfAvailRooms += num;
+            Journal.getInstance().logAddRooms(this, type, num);
             return true;
         }
         return false;
@@ -186,29 +420,190 @@ public class Hotel
     /* -------------------------------- REMOVERS -------------------------------- */
 
     /**
-     * Removes rooms from the hotel.
+     * Removes the last rooms of the hotel.
      * 
-     * Returns true only if the number of rooms to remove is within the number of
-     * rooms without reservations.
+     * Returns true only if none of the rooms to remove has reservations.
+     * Rooms are named by their index, so only the last rooms can be removed.
+     * 
+     * Removed rooms are cut off from the hotel, so changes made later through
+     * a removed room's reservations never reach the hotel.
      * 
      * @param num {int} The number of rooms to remove.
      * @return {boolean}
      */
-    public void removeRooms(int num)
+    public synchronized boolean removeRooms(int num)
+    {
+        if (num < 1 || num > getNumOfRooms())
+            return false;
+
+        int end = getNumOfRooms() - num;
+
+        for (int i = end; i < getNumOfRooms(); i++)
+        {
+            if (rooms.get(i).getNumOfReservations() > 0)
+                return false;
+        }
+
+        for (int i = getNumOfRooms() - 1; i >= end; i--)
+        {
+            Room room = rooms.remove(i);
+
+            numOfRoomsByType[room.type().ordinal()]--;
+            roomsByName.remove(room.getName());
+            numOfAvailRooms--;
+
+            // Archived reservations still count towards a room's earnings.
+            totalPrice -= room.getTotalPrice();
+            room.detach();
+        }
+        Journal.getInstance().logRemoveRooms(this, num);
+        return true;
+    }
+
+    /* -------------------------------- UPDATERS -------------------------------- */
+
+    /**
+     * Marks a room as booked or free from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * Called by the room whenever a reservation is added or removed. Rooms of
+     * the same hotel may be booked concurrently, so the hotel-wide data is
+     * only updated while holding the hotel's lock. The count of booked rooms
+     * of the room's type is updated along with the room's bit.
+     * 
+     * Rooms that were removed from the hotel are ignored, so they can never
+     * mark the nights of a room added later at the same index.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @param isBooked {boolean} Determines if the nights are booked.
+     */
+    public synchronized void updateOccupancy(Room room, int checkIn, int checkOut, boolean isBooked)
     {
-        if (num <= getNumOfAvailRooms())
+        if (!isOwnRoom(room))
+            return;
+
+        int w = room.getIndex() / 64;
+        long bit = 1L << (room.getIndex() % 64);
+        int t = room.type().ordinal();
+
+        for (int night = checkIn; night < checkOut; night++)
         {
-            int start = getNumOfRooms() - 1;
-            int end = getNumOfRooms() - num;
+            long[] words = occupancy.get(night);
 
-            for (int i = start; i >= end; i--)
+            if (isBooked)
             {
-                rooms.remove(i);
+                if (words == null)
+                {
+                    words = new long[NUM_OF_WORDS];
+                    occupancy.put(night, words);
+                    bookedByType.put(night, new int[numOfRoomsByType.length]);
+                }
+
+                if ((words[w] & bit) == 0)
+                    bookedByType.get(night)[t]++;
+
+                words[w] |= bit;
+            }
+            else if (words != null && (words[w] & bit) != 0)
+            {
+                words[w] &= ~bit;
+                bookedByType.get(night)[t]--;
+
+                // Drops nights without booked rooms.
+                if (isEmpty(words))
+                {
+                    occupancy.remove(night);
+                    bookedByType.remove(night);
+                }
             }
         }
     }
 
-    /* -------------------------------- UPDATERS -------------------------------- */
+    /**
+     * Returns the name of the room with a given index.
+     * 
+     * Names the rooms A-1 to A-5, B-1 to B-5, and so on; after Z-5 come
+     * AA-1 to AA-5, AB-1, and so on.
+     * 
+     * @param index {int} The room's index.
+     * @return {String}
+     */
+    private static String getRoomName(int index)
+    {
+        StringBuilder letters = new StringBuilder();
+
+        for (int row = index / 5; row >= 0; row = row / 26 - 1)
+        {
+            letters.insert(0, (char) ('A' + row % 26));
+        }
+        return letters + "-" + (index % 5 + 1);
+    }
+
+    /**
+     * Returns the room prices by type for a given base price.
+     * 
+     * @param basePrice {double} The base price.
+     * @return {double[]}
+     */
+    private static double[] getPrices(double basePrice)
+    {
+        double[] prices = new double[RoomType.values().length];
+
+        for (RoomType type : RoomType.values())
+        {
+            prices[type.ordinal()] = basePrice * type.getMultiplier();
+        }
+        return prices;
+    }
+
+    /**
+     * Checks if no room is booked in a night's words.
+     * 
+     * @param words {long[]} The night's words.
+     * @return {boolean}
+     */
+    private static boolean isEmpty(long[] words)
+    {
+        for (long word : words)
+        {
+            if (word != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the hotel's total earnings.
+     * 
+     * @param change {double} The change in earnings.
+     */
+    public synchronized void updateTotalPrice(double change)
+    {
+        this.totalPrice += change;
+    }
+
+    /**
+     * Updates the number of rooms without reservations.
+     * 
+     * @param change {int} The change in the number of rooms.
+     */
+    public synchronized void updateNumOfAvailRooms(int change)
+    {
+        this.numOfAvailRooms += change;
+    }
 
     /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Checks if a room is still the hotel's room at its index.
+     * 
+     * @param room {Room} The room.
+     * @return {boolean}
+     */
+    private boolean isOwnRoom(Room room)
+    {
+        return room.getIndex() < rooms.size() && rooms.get(room.getIndex()) == room;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Holds a read-only copy of a hotel at a point in time.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The hotel view class.
+ * 
+ * A view never changes once made, so any number of threads may query it
+ * without locking. Each hotel's worker publishes a new view after changing
+ * the hotel; see HotelWorkers. A new view made by update() copies only the
+ * rooms whose version changed, and shares the copies of the others.
+ */
+public class HotelView
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private final String name;           // Hotel's name.
+    private final double basePrice;      // Hotel's base price.
+    private final double totalPrice;     // Hotel's total earnings.
+    private final int numOfAvailRooms;   // Hotel's rooms without reservations.
+
+    /*
+     * Room information, by room index.
+     */
+    private final Room[] rooms;          // Rooms copied.
+    private final long[] versions;       // Rooms' versions when copied.
+    private final String[] roomNames;    // Rooms' names.
+    private final RoomType[] roomTypes;  // Rooms' types.
+    private final double[] basePrices;   // Rooms' base prices.
+    private final int[][] checkIns;      // Rooms' check-in dates, in ascending order.
+    private final int[][] checkOuts;     // Rooms' check-out dates, matching the check-ins.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a view of a hotel.
+     * 
+     * Each room is copied while holding its lock, unless copied by the
+     * hotel's worker, so every room is copied as it was between two of its
+     * changes.
+     * 
+     * @param hotel {Hotel} The hotel.
+     */
+    public HotelView(Hotel hotel)
+    {
+        this(hotel, null);
+    }
+
+    /**
+     * Constructs a view of a hotel, sharing the copies of an earlier view's
+     * rooms that have not changed since.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param previous {HotelView} The earlier view, or null to copy every room.
+     */
+    private HotelView(Hotel hotel, HotelView previous)
+    {
+        int numOfRooms = hotel.getNumOfRooms();
+        boolean isWorker = HotelWorkers.isWorkerOf(hotel);
+
+        this.name = hotel.getName();
+        this.basePrice = hotel.getBasePrice();
+        this.totalPrice = hotel.getTotalPrice();
+        this.numOfAvailRooms = hotel.getNumOfAvailRooms();
+
+        this.rooms = new Room[numOfRooms];
+        this.versions = new long[numOfRooms];
+        this.roomNames = new String[numOfRooms];
+        this.roomTypes = new RoomType[numOfRooms];
+        this.basePrices = new double[numOfRooms];
+        this.checkIns = new int[numOfRooms][];
+        this.checkOuts = new int[numOfRooms][];
+
+        for (int i = 0; i < numOfRooms; i++)
+        {
+            Room room = hotel.getRoom(i);
+
+            rooms[i] = room;
+            roomNames[i] = room.getName();
+            roomTypes[i] = room.type();
+
+            // A room's version changes after every change to it, so the earlier copy still holds.
+            if (previous != null && i < previous.rooms.length && previous.rooms[i] == room &&
+                previous.versions[i] == room.getVersion())
+            {
+                versions[i] = previous.versions[i];
+                basePrices[i] = previous.basePrices[i];
+                checkIns[i] = previous.checkIns[i];
+                checkOuts[i] = previous.checkOuts[i];
+            }
+            else if (isWorker)
+            {
+                copyRoom(i, room);
+            }
+            else
+            {
+                int index = i;
+
+                BookingEngine.getInstance().read(room, locked -> copyRoom(index, locked));
+            }
+        }
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the hotel's name.
+     * 
+     * @return {String}
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Returns the hotel's base price.
+     * 
+     * @return {double}
+     */
+    public double getBasePrice()
+    {
+        return this.basePrice;
+    }
+
+    /**
+     * Returns the hotel's total earnings.
+     * 
+     * @return {double}
+     */
+    public double getTotalPrice()
+    {
+        return this.totalPrice;
+    }
+
+    /**
+     * Returns the number of rooms.
+     * 
+     * @return {int}
+     */
+    public int getNumOfRooms()
+    {
+        return this.roomNames.length;
+    }
+
+    /**
+     * Returns the number of rooms without reservations.
+     * 
+     * @return {int}
+     */
+    public int getNumOfAvailRooms()
+    {
+        return this.numOfAvailRooms;
+    }
+
+    /**
+     * Returns a room's name given its index.
+     * 
+     * @param index {int} The room's index.
+     * @return {String}
+     */
+    public String getRoomName(int index)
+    {
+        return this.roomNames[index];
+    }
+
+    /**
+     * Returns a room's type given its index.
+     * 
+     * @param index {int} The room's index.
+     * @return {RoomType}
+     */
+    public RoomType getRoomType(int index)
+    {
+        return this.roomTypes[index];
+    }
+
+    /**
+     * Returns a room's base price given its index.
+     * 
+     * @param index {int} The room's index.
+     * @return {double}
+     */
+    public double getRoomBasePrice(int index)
+    {
+        return this.basePrices[index];
+    }
+
+    /**
+     * Returns a room's number of reservations given its index.
+     * 
+     * @param index {int} The room's index.
+     * @return {int}
+     */
+    public int getNumOfReservations(int index)
+    {
+        return this.checkIns[index].length;
+    }
+
+    /**
+     * Returns the names of the rooms of a given type that are available from
+     * the check-in date up to the night before the check-out date.
+     * 
+     * Returns rooms of any type if the given type is null.
+     * 
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @param type {RoomType} The room type.
+     * @return {ArrayList<String>}
+     */
+    public ArrayList<String> findAvailableRooms(int checkIn, int checkOut, RoomType type)
+    {
+        ArrayList<String> available = new ArrayList<>();
+
+        for (int i = 0; i < getNumOfRooms(); i++)
+        {
+            if ((type == null || roomTypes[i] == type) && isAvailable(i, checkIn, checkOut))
+                available.add(roomNames[i]);
+        }
+        return available;
+    }
+
+    /**
+     * Returns a view of a hotel sharing this view's copies of the rooms that
+     * have not changed since.
+     * 
+     * @param hotel {Hotel} The hotel of this view.
+     * @return {HotelView}
+     */
+    public HotelView update(Hotel hotel)
+    {
+        return new HotelView(hotel, this);
+    }
+
+    /**
+     * Copies a room's version, price, and stays into the view.
+     * 
+     * Must be called while holding the room's lock, or by the hotel's worker.
+     * 
+     * @param index {int} The room's index.
+     * @param room {Room} The room.
+     * @return {Room}
+     */
+    private Room copyRoom(int index, Room room)
+    {
+        // Read first, so a change made meanwhile is copied again by the next view.
+        versions[index] = room.getVersion();
+        basePrices[index] = room.getBasePrice();
+
+        long[] stays = new long[room.getNumOfReservations()];
+
+        for (int i = 0; i < stays.length; i++)
+        {
+            Reservation reservation = room.getReservation(i);
+
+            // Packs each stay into a long, with the check-in date in the upper half.
+            stays[i] = ((long) reservation.getCheckIn() << 32) |
+                       (reservation.getCheckOut() & 0xffffffffL);
+        }
+
+        // The stays of a room never overlap, so sorting by check-in also sorts the check-outs.
+        Arrays.sort(stays);
+        checkIns[index] = new int[stays.length];
+        checkOuts[index] = new int[stays.length];
+
+        for (int i = 0; i < stays.length; i++)
+        {
+            checkIns[index][i] = (int) (stays[i] >> 32);
+            checkOuts[index][i] = (int) stays[i];
+        }
+        return room;
+    }
+
+    /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Checks if a room is available from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * @param index {int} The room's index.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @return {boolean}
+     */
+    public boolean isAvailable(int index, int checkIn, int checkOut)
+    {
+        if (checkIn >= checkOut)
+            return false;
+
+        // Finds the last stay starting before the check-out date.
+        int[] starts = checkIns[index];
+        int last = Arrays.binarySearch(starts, checkOut - 1);
+
+        if (last < 0)
+            last = -last - 2;
+
+        return last < 0 || checkOuts[index][last] <= checkIn;
+    }
+}
@@ -0,0 +1,504 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Runs the changes to each hotel on a worker thread that owns the hotel.
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The hotel workers class.
+ * 
+ * There is one worker per processor, and every hotel belongs to exactly one
+ * of them, chosen by the hotel's identity. Changes to a hotel are sent to
+ * its worker as messages and run one at a time in the order received, so
+ * the changes of a hotel never wait on each other's locks, while different
+ * hotels change in parallel on different workers.
+ * 
+ * A worker takes every message waiting in its queue at once. After running
+ * them, it publishes a new view of each hotel they changed, which readers
+ * query without locking, and only then completes the messages' results, so
+ * a sender always finds its change in the view. A new view copies only the
+ * rooms whose version changed, sharing the rest with the previous view.
+ * 
+ * Changes a worker makes to its own hotels through BookingEngine take no
+ * room locks, so once a hotel is changed through its worker, every change
+ * to it must be. Other threads read such a hotel through its view, or
+ * through read().
+ */
+public class HotelWorkers
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static volatile HotelWorkers workers; // The single instance of the workers.
+
+    private final Worker[] pool;         // The workers.
+    private final Thread[] threads;      // The workers' threads.
+    private final ReentrantLock pauser;  // Held while the workers are paused.
+
+    /**
+     * A change to be run on a hotel.
+     */
+    private static class Message
+    {
+        private final Hotel hotel;                        // The hotel.
+        private final Function<Hotel, ?> change;          // The change.
+        private final boolean isRead;                     // Determines if the hotel is only read.
+        private final CompletableFuture<Object> result;   // The change's result.
+
+        /**
+         * Constructs a message given the hotel and the change.
+         * 
+         * @param hotel {Hotel} The hotel, or null if the message changes none.
+         * @param change {Function<Hotel, ?>} The change.
+         * @param isRead {boolean} Determines if the hotel is only read.
+         */
+        private Message(Hotel hotel, Function<Hotel, ?> change, boolean isRead)
+        {
+            this.hotel = hotel;
+            this.change = change;
+            this.isRead = isRead;
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * A thread that runs the messages of its hotels.
+     */
+    private static class Worker implements Runnable
+    {
+        private final LinkedBlockingQueue<Message> queue; // The messages not yet run.
+
+        /**
+         * Constructs a worker with an empty queue.
+         */
+        private Worker()
+        {
+            this.queue = new LinkedBlockingQueue<>();
+        }
+
+        /**
+         * Runs messages as they arrive, in batches.
+         * 
+         * Whatever a batch throws, its messages' results are completed and
+         * the worker goes on to the next batch.
+         */
+        @Override
+        public void run()
+        {
+            ArrayList<Message> batch = new ArrayList<>();
+            HashSet<Hotel> changed = new HashSet<>();
+
+            while (true)
+            {
+                try
+                {
+                    batch.add(queue.take());
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                queue.drainTo(batch);
+
+                try
+                {
+                    runBatch(batch, changed);
+                }
+                catch (Throwable e)
+                {
+                    // Results already completed keep their value.
+                    for (Message message : batch)
+                    {
+                        message.result.completeExceptionally(e);
+                    }
+                }
+                batch.clear();
+                changed.clear();
+            }
+        }
+
+        /**
+         * Runs a batch of messages, publishes a view of each hotel they
+         * changed, and completes their results.
+         * 
+         * A message whose change fails, or whose hotel's view cannot be
+         * built, completes with the error.
+         * 
+         * @param batch {ArrayList<Message>} The messages.
+         * @param changed {HashSet<Hotel>} An empty set to hold the changed hotels.
+         */
+        private static void runBatch(ArrayList<Message> batch, HashSet<Hotel> changed)
+        {
+            Object[] results = new Object[batch.size()];
+            Throwable[] errors = new Throwable[batch.size()];
+
+            for (int i = 0; i < batch.size(); i++)
+            {
+                Message message = batch.get(i);
+
+                try
+                {
+                    results[i] = message.change.apply(message.hotel);
+                }
+                catch (Throwable e)
+                {
+                    errors[i] = e;
+                }
+
+                if (message.hotel != null && !message.isRead)
+                    changed.add(message.hotel);
+            }
+
+            // Publishes each changed hotel once per batch, before any sender sees its result.
+            for (Hotel hotel : changed)
+            {
+                try
+                {
+                    HotelView view = hotel.getView();
+
+                    hotel.setView((view != null) ? view.update(hotel) : new HotelView(hotel));
+                }
+                catch (Throwable e)
+                {
+                    // The changes were made, but no view shows them.
+                    for (int i = 0; i < batch.size(); i++)
+                    {
+                        if (batch.get(i).hotel == hotel && errors[i] == null)
+                            errors[i] = e;
+                    }
+                }
+            }
+
+            for (int i = 0; i < batch.size(); i++)
+            {
+                if (errors[i] != null)
+                    batch.get(i).result.completeExceptionally(errors[i]);
+                else
+                    batch.get(i).result.complete(results[i]);
+            }
+        }
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the workers and starts their threads.
+     */
+    private HotelWorkers()
+    {
+        this.pool = new Worker[Runtime.getRuntime().availableProcessors()];
+        this.threads = new Thread[pool.length];
+        this.pauser = new ReentrantLock();
+
+        for (int i = 0; i < pool.length; i++)
+        {
+            pool[i] = new Worker();
+            threads[i] = new Thread(pool[i], "hotel-worker-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the single instance of the workers.
+     * 
+     * @return {HotelWorkers}
+     */
+    public static synchronized HotelWorkers getInstance()
+    {
+        if (HotelWorkers.workers == null)
+            HotelWorkers.workers = new HotelWorkers();
+
+        return HotelWorkers.workers;
+    }
+
+    /**
+     * Returns the latest view of a hotel given its name, or null if there is
+     * no such hotel.
+     * 
+     * Publishes a view first if the hotel has none yet.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @return {HotelView}
+     */
+    public HotelView getView(String hotelName)
+    {
+        Hotel hotel = Heap.getInstance().getHotel(hotelName);
+
+        if (hotel == null)
+            return null;
+
+        if (hotel.getView() == null)
+            submit(hotelName, changed -> null).join();
+
+        return hotel.getView();
+    }
+
+    /**
+     * Returns the result of reading a hotel on its worker, between two of
+     * its changes, while holding the hotel's locks in BookingEngine.
+     * 
+     * Reads directly if the workers are paused by the calling thread or the
+     * calling thread is the hotel's worker.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param reader {Function<Hotel, T>} Reads the hotel.
+     * @return {T}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(Hotel hotel, Function<Hotel, T> reader)
+    {
+        BookingEngine engine = BookingEngine.getInstance();
+
+        if (pauser.isHeldByCurrentThread() || isWorkerOf(hotel))
+            return engine.read(hotel, reader);
+
+        Message message = new Message(hotel, locked -> engine.read(locked, reader), true);
+        pool[getWorkerIndex(hotel)].queue.add(message);
+
+        return (T) message.result.join();
+    }
+
+    /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Checks if the calling thread is the worker owning a hotel.
+     * 
+     * @param hotel {Hotel} The hotel, or null.
+     * @return {boolean}
+     */
+    public static boolean isWorkerOf(Hotel hotel)
+    {
+        HotelWorkers workers = HotelWorkers.workers;
+
+        return hotel != null && workers != null &&
+               workers.threads[workers.getWorkerIndex(hotel)] == Thread.currentThread();
+    }
+
+    /* -------------------------------- MESSAGES -------------------------------- */
+
+    /**
+     * Returns the result of running a task while every worker waits, having
+     * run the messages sent before.
+     * 
+     * Pauses may nest. Must not be called by a worker.
+     * 
+     * @param task {Supplier<T>} The task.
+     * @return {T}
+     */
+    public <T> T pause(Supplier<T> task)
+    {
+        if (pauser.isHeldByCurrentThread())
+            return task.get();
+
+        pauser.lock();
+
+        CountDownLatch paused = new CountDownLatch(pool.length);
+        CountDownLatch resumed = new CountDownLatch(1);
+
+        try
+        {
+            for (Worker worker : pool)
+            {
+                worker.queue.add(new Message(null, none ->
+                {
+                    paused.countDown();
+
+                    try
+                    {
+                        resumed.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }, true));
+            }
+            paused.await();
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pausing the workers.", e);
+        }
+        finally
+        {
+            resumed.countDown();
+            pauser.unlock();
+        }
+    }
+
+    /**
+     * Sends a change to the worker of a hotel given the hotel's name.
+     * 
+     * The returned future completes with the change's result once the
+     * change is run, or with null if there is no such hotel.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param change {Function<Hotel, T>} The change.
+     * @return {CompletableFuture<T>}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String hotelName, Function<Hotel, T> change)
+    {
+        Hotel hotel = Heap.getInstance().getHotel(hotelName);
+
+        if (hotel == null)
+            return CompletableFuture.completedFuture(null);
+
+        Message message = new Message(hotel, change, false);
+        pool[getWorkerIndex(hotel)].queue.add(message);
+
+        return (CompletableFuture<T>) message.result;
+    }
+
+    /**
+     * Reserves a room of a hotel if it is available from the check-in date
+     * up to the night before the check-out date.
+     * 
+     * Completes with the reservation, or with null if the hotel or room does
+     * not exist or the dates are not available.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param roomName {String} The room name.
+     * @param guestName {String} The guest name.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {CompletableFuture<Reservation>}
+     */
+    public CompletableFuture<Reservation> reserve(String hotelName, String roomName,
+                                                  String guestName, int checkIn, int checkOut)
+    {
+        return submit(hotelName, hotel ->
+        {
+            Room room = hotel.getRoom(roomName);
+
+            return (room != null) ? BookingEngine.getInstance().reserve(room, guestName,
+                                                                        checkIn, checkOut)
+                                  : null;
+        });
+    }
+
+    /**
+     * Cancels a reservation of a hotel given its id.
+     * 
+     * Completes with true only if the reservation belonged to the hotel and
+     * was still booked.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param id {long} The reservation's id.
+     * @return {CompletableFuture<Boolean>}
+     */
+    public CompletableFuture<Boolean> cancel(String hotelName, long id)
+    {
+        return submit(hotelName, hotel ->
+        {
+            Reservation reservation = Heap.getInstance().getReservation(id);
+
+            return reservation != null && reservation.getRoom().getHotel() == hotel &&
+                   BookingEngine.getInstance().cancel(reservation);
+        });
+    }
+
+    /**
+     * Sets the rate of a given date for a room of a hotel.
+     * 
+     * Completes with true only if the room exists and the rate is valid.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param roomName {String} The room name.
+     * @param date {int} The date.
+     * @param rate {double} The rate.
+     * @return {CompletableFuture<Boolean>}
+     */
+    public CompletableFuture<Boolean> setDateRate(String hotelName, String roomName,
+                                                  int date, double rate)
+    {
+        return submit(hotelName, hotel ->
+        {
+            Room room = hotel.getRoom(roomName);
+
+            return room != null && room.setDateRate(date, rate);
+        });
+    }
+
+    /**
+     * Sets the rate of every date from a given date up to the day before
+     * another for a hotel's rooms of a given type, or of any type if the
+     * type is null.
+     * 
+     * Completes with true only if the hotel exists and the rates are valid.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param from {int} The first date.
+     * @param to {int} The day after the last date.
+     * @param rate {double} The rate.
+     * @param type {RoomType} The room type.
+     * @return {CompletableFuture<Boolean>}
+     */
+    public CompletableFuture<Boolean> setDateRates(String hotelName, int from, int to,
+                                                   double rate, RoomType type)
+    {
+        return submit(hotelName, hotel -> hotel.setDateRates(from, to, rate, type));
+    }
+
+    /**
+     * Adds rooms to a hotel.
+     * 
+     * Completes with true only if the hotel exists and the rooms were added.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param type {RoomType} The type of rooms to add.
+     * @param num {int} The number of rooms to add.
+     * @return {CompletableFuture<Boolean>}
+     */
+    public CompletableFuture<Boolean> addRooms(String hotelName, RoomType type, int num)
+    {
+        return submit(hotelName, hotel -> hotel.addRooms(type, num));
+    }
+
+    /**
+     * Removes rooms from a hotel.
+     * 
+     * Completes with true only if the hotel exists and the rooms were
+     * removed.
+     * 
+     * @param hotelName {String} The hotel name.
+     * @param num {int} The number of rooms to remove.
+     * @return {CompletableFuture<Boolean>}
+     */
+    public CompletableFuture<Boolean> removeRooms(String hotelName, int num)
+    {
+        return submit(hotelName, hotel -> hotel.removeRooms(num));
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns the index of the worker owning a hotel.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @return {int}
+     */
+    private int getWorkerIndex(Hotel hotel)
+    {
+        // Spreads the identity hash so neighbouring objects use different workers.
+        int hash = System.identityHashCode(hotel);
+        hash ^= (hash >>> 16);
+
+        return (hash & 0x7fffffff) % pool.length;
+    }
+}
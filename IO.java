@@ -12,8 +12,9 @@ public class IO
 {
     /* ------------------------------- ATTRIBUTES ------------------------------- */
 
-    private static IO io;     // The single instance of the I/O class.
-    private static Heap heap; // The data currently being stored by the system.
+    private static IO io;           // The single instance of the I/O class.
+    private static Heap heap;       // The data currently being stored by the system.
+    private static Session session; // The data being processed by the GUI.
     // TODO Scan inputs with the GUI.
 
     /* ------------------------------- CONSTRUCTOR ------------------------------ */
@@ -24,6 +25,7 @@ public class IO
     private IO()
     {
         IO.heap = Heap.getInstance();
+        IO.session = new Session();
     }
 
     /* --------------------------------- GETTERS -------------------------------- */
@@ -0,0 +1,1023 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Records every change to the system's hotels so that it survives a restart.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The journal class.
+ * 
+ * Every successful change to a hotel, room, or reservation appends a record
+ * to an in-memory buffer. The buffer is written and forced to disk in
+ * batches, either every few milliseconds by a background thread or when a
+ * caller asks for durability through sync(), so many changes share a
+ * single fsync.
+ * 
+ * The file starts with a header holding a magic number and the format
+ * version. Each record is then stored as its length, its CRC-32, and its
+ * payload; the payload is an operation code followed by the operation's
+ * arguments, with hotels and rooms identified by name. A torn record at the
+ * end of the file marks the end of the journal.
+ * 
+ * On startup, recover() loads the latest snapshot and replays the journal on
+ * top of it. checkpoint() pauses every change, saves a new snapshot, and
+ * empties the journal.
+ */
+public class Journal
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final Journal journal = new Journal(); // The single instance of the journal.
+
+    private final Object bufferLock;    // Guards the buffer and the record count.
+    private final Object flushLock;     // Serializes the writes to the file.
+
+    private volatile boolean isOpen;    // Determines if changes are being recorded.
+    private FileChannel channel;        // The journal file.
+    private ScheduledExecutorService flusher; // Writes the buffer in the background.
+    private IOException error;          // The last error of the background writer.
+
+    private ByteBuffer buffer;          // The records not yet written.
+    private long numOfRecords;          // The number of records appended.
+    private volatile long numOfDurable; // The number of records forced to disk.
+
+    /*
+     * Operation codes.
+     */
+    private static final byte ADD_HOTEL = 1;
+    private static final byte REMOVE_HOTEL = 2;
+    private static final byte RENAME_HOTEL = 3;
+    private static final byte SET_HOTEL_BASE_PRICE = 4;
+    private static final byte ADD_ROOMS = 5;
+    private static final byte REMOVE_ROOMS = 6;
+    private static final byte SET_ROOM_BASE_PRICE = 7;
+    private static final byte SET_DATE_RATE = 8;
+    private static final byte ADD_RESERVATION = 9;
+    private static final byte REMOVE_RESERVATION = 10;
+    private static final byte SET_DISCOUNT = 11;
+    private static final byte ARCHIVE_RESERVATIONS = 12;
+    private static final byte SET_DATE_RATES = 13;
+    private static final byte SET_HOTEL_DATE_RATES = 14;
+
+    private static final int MAGIC = 0x48524a4c;     // Marks a journal file ("HRJL").
+    private static final int VERSION = 1;            // The journal format version.
+    private static final int HEADER_SIZE = 8;        // The size of the header.
+
+    private static final int FLUSH_INTERVAL = 5;     // The milliseconds between writes.
+    private static final int INITIAL_SIZE = 1 << 16; // The initial buffer size.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the journal.
+     */
+    private Journal()
+    {
+        this.bufferLock = new Object();
+        this.flushLock = new Object();
+        this.isOpen = false;
+        this.buffer = ByteBuffer.allocate(INITIAL_SIZE);
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the single instance of the journal.
+     * 
+     * @return {Journal}
+     */
+    public static Journal getInstance()
+    {
+        return Journal.journal;
+    }
+
+    /* ------------------------------- LIFECYCLE -------------------------------- */
+
+    /**
+     * Restores the system from a snapshot and a journal, then starts
+     * recording changes to the journal.
+     * 
+     * Either file may be missing, in which case it is treated as empty.
+     * 
+     * @param snapshot {Path} The snapshot file.
+     * @param path {Path} The journal file.
+     * @throws IOException If a file cannot be read, is of an unsupported
+     *                     version, or the journal cannot be opened.
+     */
+    public void recover(Path snapshot, Path path) throws IOException
+    {
+        if (isOpen)
+            throw new IllegalStateException("The journal is already open.");
+
+        if (Files.exists(snapshot))
+            Snapshot.load(snapshot);
+
+        if (Files.exists(path))
+        {
+            long end = replay(path);
+
+            // Drops a torn tail so that new records follow the intact ones.
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE))
+            {
+                if (file.size() > end)
+                    file.truncate(end);
+            }
+        }
+
+        open(path);
+    }
+
+    /**
+     * Starts recording changes, appending to the given file.
+     * 
+     * Records left unwritten by an earlier failure are dropped, along with
+     * the failure, so they are not written to the new file.
+     * 
+     * @param path {Path} The journal file.
+     * @throws IOException If the file cannot be opened or is of an unsupported version.
+     */
+    public synchronized void open(Path path) throws IOException
+    {
+        if (isOpen)
+            throw new IllegalStateException("The journal is already open.");
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try
+        {
+            if (channel.size() < HEADER_SIZE)
+            {
+                channel.truncate(0);
+                putHeader();
+            }
+            else
+            {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+                while (header.hasRemaining())
+                {
+                    channel.read(header, header.position());
+                }
+
+                checkHeader(header.flip(), path);
+                channel.position(channel.size());
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+
+        synchronized (bufferLock)
+        {
+            buffer.clear();
+            numOfDurable = numOfRecords;
+        }
+        error = null;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL,
+                                       FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        isOpen = true;
+    }
+
+    /**
+     * Writes every pending record and stops recording changes.
+     * 
+     * @throws IOException If the pending records cannot be written.
+     */
+    public synchronized void close() throws IOException
+    {
+        if (!isOpen)
+            return;
+
+        isOpen = false;
+        flusher.shutdown();
+
+        try
+        {
+            sync();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Saves a snapshot of the system and empties the journal.
+     * 
+     * Every change is paused until the journal is emptied, so each change
+     * is either in the snapshot or recorded after it, never both.
+     * 
+     * @param snapshot {Path} The snapshot file.
+     * @throws IOException If the snapshot or the journal cannot be written.
+     */
+    public void checkpoint(Path snapshot) throws IOException
+    {
+        try
+        {
+            BookingEngine.getInstance().pause(() ->
+            {
+                try
+                {
+                    sync();
+                    Snapshot.save(snapshot);
+
+                    synchronized (flushLock)
+                    {
+                        if (isOpen)
+                        {
+                            channel.truncate(0);
+                            putHeader();
+                            channel.force(true);
+                        }
+                    }
+                    return null;
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Blocks until every record appended so far is forced to disk.
+     * 
+     * Callers that arrive while a write is in progress find their records
+     * written by it, so concurrent callers share a single fsync.
+     * 
+     * @throws IOException If the records cannot be written.
+     */
+    public void sync() throws IOException
+    {
+        long target;
+
+        synchronized (bufferLock)
+        {
+            target = numOfRecords;
+        }
+
+        synchronized (flushLock)
+        {
+            if (error != null)
+                throw error;
+
+            if (numOfDurable < target)
+                flush();
+        }
+    }
+
+    /**
+     * Writes and forces the buffered records to disk.
+     * 
+     * Must be called while holding the flush lock.
+     * 
+     * @throws IOException If the records cannot be written.
+     */
+    private void flush() throws IOException
+    {
+        ByteBuffer pending;
+        long upTo;
+
+        // Swaps the buffer so appenders are not blocked by the disk.
+        synchronized (bufferLock)
+        {
+            if (buffer.position() == 0)
+                return;
+
+            pending = buffer;
+            upTo = numOfRecords;
+            buffer = ByteBuffer.allocate(pending.capacity());
+        }
+
+        pending.flip();
+
+        while (pending.hasRemaining())
+        {
+            channel.write(pending);
+        }
+        channel.force(false);
+        numOfDurable = upTo;
+    }
+
+    /**
+     * Writes the header of an empty journal file.
+     * 
+     * @throws IOException If the header cannot be written.
+     */
+    private void putHeader() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.flip();
+
+        while (header.hasRemaining())
+        {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Writes the buffered records in the background, keeping any error for
+     * the next caller of sync().
+     */
+    private void flushQuietly()
+    {
+        synchronized (flushLock)
+        {
+            if (error != null || !channel.isOpen())
+                return;
+
+            try
+            {
+                flush();
+            }
+            catch (IOException e)
+            {
+                error = e;
+            }
+        }
+    }
+
+    /* --------------------------------- LOGGERS -------------------------------- */
+
+    /**
+     * Records the addition of a hotel.
+     * 
+     * @param name {String} The hotel name.
+     * @param basePrice {double} The base price.
+     * @param nRooms {int} The number of hotel rooms.
+     */
+    public void logAddHotel(String name, double basePrice, int nRooms)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] nameBytes = toBytes(name);
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(ADD_HOTEL, 4 + nameBytes.length + 12);
+            putBytes(nameBytes);
+            buffer.putDouble(basePrice);
+            buffer.putInt(nRooms);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the removal of a hotel.
+     * 
+     * @param name {String} The hotel name.
+     */
+    public void logRemoveHotel(String name)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] nameBytes = toBytes(name);
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(REMOVE_HOTEL, 4 + nameBytes.length);
+            putBytes(nameBytes);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the renaming of a hotel.
+     * 
+     * @param name {String} The hotel's old name.
+     * @param newName {String} The hotel's new name.
+     */
+    public void logRenameHotel(String name, String newName)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] nameBytes = toBytes(name);
+        byte[] newNameBytes = toBytes(newName);
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(RENAME_HOTEL, 8 + nameBytes.length + newNameBytes.length);
+            putBytes(nameBytes);
+            putBytes(newNameBytes);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records a change to a hotel's base price.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param basePrice {double} The base price.
+     */
+    public void logSetBasePrice(Hotel hotel, double basePrice)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] hotelBytes = toBytes(hotel.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_HOTEL_BASE_PRICE, 4 + hotelBytes.length + 8);
+            putBytes(hotelBytes);
+            buffer.putDouble(basePrice);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the addition of rooms to a hotel.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param type {RoomType} The type of rooms added.
+     * @param num {int} The number of rooms added.
+     */
+    public void logAddRooms(Hotel hotel, RoomType type, int num)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] hotelBytes = toBytes(hotel.getName());
+        byte[] typeBytes = toBytes(type.name());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(ADD_ROOMS, 8 + hotelBytes.length + typeBytes.length + 4);
+            putBytes(hotelBytes);
+            putBytes(typeBytes);
+            buffer.putInt(num);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the removal of rooms from a hotel.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param num {int} The number of rooms removed.
+     */
+    public void logRemoveRooms(Hotel hotel, int num)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] hotelBytes = toBytes(hotel.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(REMOVE_ROOMS, 4 + hotelBytes.length + 4);
+            putBytes(hotelBytes);
+            buffer.putInt(num);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the archiving of a hotel's completed reservations.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param date {int} The last check-out date archived.
+     */
+    public void logArchiveReservations(Hotel hotel, int date)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] hotelBytes = toBytes(hotel.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(ARCHIVE_RESERVATIONS, 4 + hotelBytes.length + 4);
+            putBytes(hotelBytes);
+            buffer.putInt(date);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records a change to a room's base price.
+     * 
+     * @param room {Room} The room.
+     * @param basePrice {double} The base price.
+     */
+    public void logSetBasePrice(Room room, double basePrice)
+    {
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_ROOM_BASE_PRICE,
+                                    8 + hotelBytes.length + roomBytes.length + 8);
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            buffer.putDouble(basePrice);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records a change to a room's rate on a given date.
+     * 
+     * @param room {Room} The room.
+     * @param date {int} The date.
+     * @param rate {double} The rate.
+     */
+    public void logSetDateRate(Room room, int date, double rate)
+    {
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_DATE_RATE,
+                                    8 + hotelBytes.length + roomBytes.length + 12);
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            buffer.putInt(date);
+            buffer.putDouble(rate);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records a change to a room's rates over a range of dates.
+     * 
+     * @param room {Room} The room.
+     * @param from {int} The first date.
+     * @param to {int} The day after the last date.
+     * @param rate {double} The rate.
+     */
+    public void logSetDateRates(Room room, int from, int to, double rate)
+    {
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_DATE_RATES,
+                                    8 + hotelBytes.length + roomBytes.length + 16);
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            buffer.putInt(from);
+            buffer.putInt(to);
+            buffer.putDouble(rate);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records a change to the rates of a hotel's rooms of a given type, or of
+     * every room if the type is null, over a range of dates.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param type {RoomType} The room type.
+     * @param from {int} The first date.
+     * @param to {int} The day after the last date.
+     * @param rate {double} The rate.
+     */
+    public void logSetDateRates(Hotel hotel, RoomType type, int from, int to, double rate)
+    {
+        if (!isOpen)
+            return;
+
+        byte[] hotelBytes = toBytes(hotel.getName());
+
+        // Every room is written as an empty type name.
+        byte[] typeBytes = toBytes((type != null) ? type.name() : "");
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_HOTEL_DATE_RATES,
+                                    8 + hotelBytes.length + typeBytes.length + 16);
+            putBytes(hotelBytes);
+            putBytes(typeBytes);
+            buffer.putInt(from);
+            buffer.putInt(to);
+            buffer.putDouble(rate);
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the addition of a reservation, along with its prices and the
+     * rate of each night, so that replaying it does not reprice it.
+     * 
+     * @param reservation {Reservation} The reservation.
+     */
+    public void logAddReservation(Reservation reservation)
+    {
+        Room room = reservation.getRoom();
+
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+        byte[] guestBytes = toBytes(reservation.getGuestName());
+
+        synchronized (bufferLock)
+        {
+            int checkIn = reservation.getCheckIn();
+            int checkOut = reservation.getCheckOut();
+            int start = beginRecord(ADD_RESERVATION, 12 + hotelBytes.length +
+                                    roomBytes.length + guestBytes.length + 16 +
+                                    16 + 8 * Math.max(checkOut - checkIn, 0));
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            putBytes(guestBytes);
+            buffer.putInt(checkIn);
+            buffer.putInt(checkOut);
+            buffer.putLong(reservation.getId());
+            buffer.putDouble(reservation.getNightlyPrice());
+            buffer.putDouble(reservation.getTotalPrice());
+
+            for (int night = checkIn; night < checkOut; night++)
+            {
+                buffer.putDouble(reservation.getRate(night));
+            }
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the removal of a reservation.
+     * 
+     * A reservation is identified by its room and check-in date, since the
+     * reservations of a room never share a night.
+     * 
+     * @param reservation {Reservation} The reservation.
+     */
+    public void logRemoveReservation(Reservation reservation)
+    {
+        Room room = reservation.getRoom();
+
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(REMOVE_RESERVATION,
+                                    8 + hotelBytes.length + roomBytes.length + 4);
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            buffer.putInt(reservation.getCheckIn());
+            endRecord(start);
+        }
+    }
+
+    /**
+     * Records the application of a discount code to a reservation.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @param code {String} The discount code.
+     */
+    public void logSetDiscount(Reservation reservation, String code)
+    {
+        Room room = reservation.getRoom();
+
+        if (!isOpen || room.getHotel() == null)
+            return;
+
+        byte[] hotelBytes = toBytes(room.getHotel().getName());
+        byte[] roomBytes = toBytes(room.getName());
+        byte[] codeBytes = toBytes(code);
+
+        synchronized (bufferLock)
+        {
+            int start = beginRecord(SET_DISCOUNT, 12 + hotelBytes.length +
+                                    roomBytes.length + 4 + codeBytes.length);
+            putBytes(hotelBytes);
+            putBytes(roomBytes);
+            buffer.putInt(reservation.getCheckIn());
+            putBytes(codeBytes);
+            endRecord(start);
+        }
+    }
+
+    /* --------------------------------- WRITERS -------------------------------- */
+
+    /**
+     * Starts a record, making room for its header and payload.
+     * 
+     * Must be called while holding the buffer lock.
+     * 
+     * @param op {byte} The operation code.
+     * @param size {int} The size of the arguments.
+     * @return {int} The position of the record.
+     */
+    private int beginRecord(byte op, int size)
+    {
+        int needed = 9 + size;
+
+        if (buffer.remaining() < needed)
+        {
+            int capacity = buffer.capacity();
+
+            while (capacity - buffer.position() < needed)
+            {
+                capacity *= 2;
+            }
+
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        int start = buffer.position();
+
+        // The length and checksum are filled in by endRecord.
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.put(op);
+        return start;
+    }
+
+    /**
+     * Fills in the length and checksum of a record.
+     * 
+     * Must be called while holding the buffer lock.
+     * 
+     * @param start {int} The position of the record.
+     */
+    private void endRecord(int start)
+    {
+        int length = buffer.position() - start - 8;
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start + 8, length);
+
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        numOfRecords++;
+    }
+
+    /**
+     * Writes a string's bytes preceded by their length.
+     * 
+     * @param bytes {byte[]} The UTF-8 bytes.
+     */
+    private void putBytes(byte[] bytes)
+    {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Returns the UTF-8 bytes of a string.
+     * 
+     * @param text {String} The string.
+     * @return {byte[]}
+     */
+    private static byte[] toBytes(String text)
+    {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /* --------------------------------- REPLAY --------------------------------- */
+
+    /**
+     * Applies every intact record of a journal file to the system.
+     * 
+     * Records naming a hotel or room that no longer exists are skipped.
+     * 
+     * Returns the position just after the last intact record, or 0 if even
+     * the header is torn.
+     * 
+     * @param path {Path} The journal file.
+     * @return {long}
+     * @throws IOException If the file cannot be read or is of an unsupported version.
+     */
+    private long replay(Path path) throws IOException
+    {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer records = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            CRC32 crc = new CRC32();
+
+            if (records.remaining() < HEADER_SIZE)
+                return 0;
+
+            checkHeader(records, path);
+            long end = records.position();
+
+            while (records.remaining() >= 8)
+            {
+                int length = records.getInt();
+                int checksum = records.getInt();
+
+                // Stops at a torn or corrupt record.
+                if (length < 1 || length > records.remaining())
+                    break;
+
+                ByteBuffer record = records.slice();
+                record.limit(length);
+
+                crc.reset();
+                crc.update(record.duplicate());
+
+                if ((int) crc.getValue() != checksum)
+                    break;
+
+                apply(record);
+                records.position(records.position() + length);
+                end = records.position();
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Applies a single record to the system.
+     * 
+     * @param record {ByteBuffer} The record's payload.
+     */
+    private void apply(ByteBuffer record)
+    {
+        Heap heap = Heap.getInstance();
+        byte op = record.get();
+
+        if (op == ADD_HOTEL)
+        {
+            heap.addHotel(getString(record), record.getDouble(), record.getInt());
+            return;
+        }
+        if (op == REMOVE_HOTEL)
+        {
+            heap.removeHotel(getString(record));
+            return;
+        }
+        if (op == RENAME_HOTEL)
+        {
+            heap.renameHotel(getString(record), getString(record));
+            return;
+        }
+
+        Hotel hotel = heap.getHotel(getString(record));
+
+        if (hotel == null)
+            return;
+
+        switch (op)
+        {
+            case SET_HOTEL_BASE_PRICE -> hotel.setBasePrice(record.getDouble());
+            case ADD_ROOMS -> hotel.addRooms(RoomType.fromName(getString(record)), record.getInt());
+            case REMOVE_ROOMS -> hotel.removeRooms(record.getInt());
+            case ARCHIVE_RESERVATIONS -> BookingEngine.getInstance().archive(hotel, record.getInt());
+            case SET_HOTEL_DATE_RATES ->
+            {
+                String typeName = getString(record);
+
+                hotel.setDateRates(record.getInt(), record.getInt(), record.getDouble(),
+                                   typeName.isEmpty() ? null : RoomType.fromName(typeName));
+            }
+            default -> applyToRoom(op, hotel.getRoom(getString(record)), record);
+        }
+    }
+
+    /**
+     * Applies a record concerning a room or one of its reservations.
+     * 
+     * @param op {byte} The operation code.
+     * @param room {Room} The room, or null if it no longer exists.
+     * @param record {ByteBuffer} The rest of the record's payload.
+     */
+    private void applyToRoom(byte op, Room room, ByteBuffer record)
+    {
+        if (room == null)
+            return;
+
+        switch (op)
+        {
+            case SET_ROOM_BASE_PRICE -> room.setBasePrice(record.getDouble());
+            case SET_DATE_RATE -> room.setDateRate(record.getInt(), record.getDouble());
+            case SET_DATE_RATES -> room.setDateRates(record.getInt(), record.getInt(), record.getDouble());
+            case ADD_RESERVATION ->
+            {
+                String guestName = getString(record);
+                int checkIn = record.getInt();
+                int checkOut = record.getInt();
+                long id = record.getLong();
+                double[] rates = new double[Math.max(checkOut - checkIn, 0)];
+                double nightlyPrice = record.getDouble();
+                double totalPrice = record.getDouble();
+
+                for (int i = 0; i < rates.length; i++)
+                {
+                    rates[i] = record.getDouble();
+                }
+                room.addReservation(new Reservation(id, guestName, room, checkIn, checkOut,
+                                                    nightlyPrice, totalPrice, rates, 0L));
+            }
+            case REMOVE_RESERVATION ->
+            {
+                Reservation reservation = findReservation(room, record.getInt());
+
+                if (reservation != null)
+                    room.removeReservation(reservation);
+            }
+            case SET_DISCOUNT ->
+            {
+                Reservation reservation = findReservation(room, record.getInt());
+
+                if (reservation != null)
+                    reservation.setDiscount(getString(record));
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Reads the header of a journal file, checking that it is of the
+     * supported version.
+     * 
+     * @param header {ByteBuffer} The file's contents, from its start.
+     * @param path {Path} The journal file.
+     * @throws IOException If the file is not a journal of the supported version.
+     */
+    private static void checkHeader(ByteBuffer header, Path path) throws IOException
+    {
+        if (header.getInt() != MAGIC || header.getInt() != VERSION)
+            throw new IOException("Not a supported journal: " + path);
+    }
+
+    /**
+     * Returns a room's reservation given its check-in date.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date.
+     * @return {Reservation}
+     */
+    private static Reservation findReservation(Room room, int checkIn)
+    {
+        for (int i = 0; i < room.getNumOfReservations(); i++)
+        {
+            if (room.getReservation(i).getCheckIn() == checkIn)
+                return room.getReservation(i);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a string written as its UTF-8 length followed by its bytes.
+     * 
+     * @param record {ByteBuffer} The record.
+     * @return {String}
+     */
+    private static String getString(ByteBuffer record)
+    {
+        byte[] bytes = new byte[record.getInt()];
+
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Stores which nights of a calendar are booked.
+ */
+
+import java.util.HashMap;
+
+/**
+ * The occupancy class.
+ * 
+ * Nights are epoch days (days since 1970-01-01) and are grouped into segments
+ * of 256 nights, each stored as four longs with one bit per night. Only
+ * segments holding at least one booked night are kept, so memory grows with
+ * the nights actually booked rather than with the length of the calendar.
+ */
+public class Occupancy
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private final HashMap<Integer, long[]> segments; // The booked nights by segment.
+
+    private static final int SEGMENT_SHIFT = 8;                    // Nights per segment as a power of 2.
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+    private static final int NUM_OF_WORDS = (1 << SEGMENT_SHIFT) / 64; // The longs per segment.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a calendar without booked nights.
+     */
+    public Occupancy()
+    {
+        this.segments = new HashMap<>();
+    }
+
+    /* --------------------------------- SETTERS -------------------------------- */
+
+    /**
+     * Books or frees the nights from the check-in date up to the night before
+     * the check-out date.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @param isBooked {boolean} Determines if the nights are booked.
+     */
+    public void setNights(int checkIn, int checkOut, boolean isBooked)
+    {
+        int night = checkIn;
+
+        while (night < checkOut)
+        {
+            int key = night >> SEGMENT_SHIFT;
+            long[] words = segments.get(key);
+
+            if (words == null)
+            {
+                if (!isBooked)
+                {
+                    // Nothing to free in a missing segment; skips to the next one.
+                    night = (key + 1) << SEGMENT_SHIFT;
+                    continue;
+                }
+                words = new long[NUM_OF_WORDS];
+                segments.put(key, words);
+            }
+
+            // Updates the nights of this segment one word at a time.
+            int end = Math.min(checkOut, (key + 1) << SEGMENT_SHIFT);
+
+            while (night < end)
+            {
+                int offset = night & SEGMENT_MASK;
+                int w = offset >> 6;
+                int count = Math.min(end - night, 64 - (offset & 63));
+                long mask = getMask(offset & 63, count);
+
+                if (isBooked)
+                    words[w] |= mask;
+                else
+                    words[w] &= ~mask;
+
+                night += count;
+            }
+
+            if (!isBooked && isEmpty(words))
+                segments.remove(key);
+        }
+    }
+
+    /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Checks if none of the nights from the check-in date up to the night
+     * before the check-out date are booked.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {boolean}
+     */
+    public boolean areNightsFree(int checkIn, int checkOut)
+    {
+        int night = checkIn;
+
+        while (night < checkOut)
+        {
+            int key = night >> SEGMENT_SHIFT;
+            int end = Math.min(checkOut, (key + 1) << SEGMENT_SHIFT);
+            long[] words = segments.get(key);
+
+            if (words != null)
+            {
+                int from = night;
+
+                while (from < end)
+                {
+                    int offset = from & SEGMENT_MASK;
+                    int count = Math.min(end - from, 64 - (offset & 63));
+
+                    if ((words[offset >> 6] & getMask(offset & 63, count)) != 0)
+                        return false;
+
+                    from += count;
+                }
+            }
+            night = end;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if no night is booked.
+     * 
+     * @return {boolean}
+     */
+    public boolean isEmpty()
+    {
+        return segments.isEmpty();
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a mask of a number of bits starting at a given bit.
+     * 
+     * @param start {int} The first bit, within 0 to 63.
+     * @param count {int} The number of bits, within 1 to 64 - start.
+     * @return {long}
+     */
+    private static long getMask(int start, int count)
+    {
+        return (count == 64 ? -1L : (1L << count) - 1) << start;
+    }
+
+    /**
+     * Checks if a segment has no booked night.
+     * 
+     * @param words {long[]} The segment.
+     * @return {boolean}
+     */
+    private static boolean isEmpty(long[] words)
+    {
+        for (long word : words)
+        {
+            if (word != 0)
+                return false;
+        }
+        return true;
+    }
+}
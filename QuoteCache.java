@@ -0,0 +1,255 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Caches the availability and prices of rooms for given dates.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The quote cache class.
+ * 
+ * Each entry holds whether a room is available for a stay and what the stay
+ * costs, along with the room's version when they were computed. An entry is
+ * used only while the room's version is unchanged, so any booking,
+ * cancellation, or price change of the room makes its entries stale without
+ * the cache being told. The least recently used entries are evicted once
+ * the cache is full.
+ */
+public class QuoteCache
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static QuoteCache cache;  // The single instance of the cache.
+
+    private final LinkedHashMap<Key, Entry> entries; // The entries, least recently used first.
+    private final LongAdder numOfHits;               // The number of lookups served by the cache.
+    private final LongAdder numOfMisses;             // The number of lookups computed anew.
+
+    private static final int MAX_NUM_OF_ENTRIES = 4096; // The max number of entries.
+
+    /**
+     * A room and the dates of a stay.
+     */
+    private static class Key
+    {
+        private final Room room;    // The room.
+        private final int checkIn;  // The check-in date.
+        private final int checkOut; // The check-out date.
+
+        /**
+         * Constructs a key given the room and the dates.
+         * 
+         * @param room {Room} The room.
+         * @param checkIn {int} The check-in date.
+         * @param checkOut {int} The check-out date.
+         */
+        private Key(Room room, int checkIn, int checkOut)
+        {
+            this.room = room;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof Key))
+                return false;
+
+            Key key = (Key) other;
+
+            return room == key.room && checkIn == key.checkIn && checkOut == key.checkOut;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (System.identityHashCode(room) * 31 + checkIn) * 31 + checkOut;
+        }
+    }
+
+    /**
+     * The availability and price of a stay at a given room version.
+     */
+    private static class Entry
+    {
+        private final long version;        // The room's version.
+        private final boolean isAvailable; // Determines if the room is available.
+        private final double price;        // The price of the stay.
+
+        /**
+         * Constructs an entry given the room version and the results.
+         * 
+         * @param version {long} The room's version.
+         * @param isAvailable {boolean} Determines if the room is available.
+         * @param price {double} The price of the stay.
+         */
+        private Entry(long version, boolean isAvailable, double price)
+        {
+            this.version = version;
+            this.isAvailable = isAvailable;
+            this.price = price;
+        }
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the quote cache.
+     */
+    private QuoteCache()
+    {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest)
+            {
+                return size() > MAX_NUM_OF_ENTRIES;
+            }
+        };
+        this.numOfHits = new LongAdder();
+        this.numOfMisses = new LongAdder();
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the single instance of the quote cache.
+     * 
+     * @return {QuoteCache}
+     */
+    public static synchronized QuoteCache getInstance()
+    {
+        if (QuoteCache.cache == null)
+            QuoteCache.cache = new QuoteCache();
+
+        return QuoteCache.cache;
+    }
+
+    /**
+     * Checks if a room is available from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @return {boolean}
+     */
+    public boolean isAvailable(Room room, int checkIn, int checkOut)
+    {
+        return getEntry(room, checkIn, checkOut).isAvailable;
+    }
+
+    /**
+     * Returns the price of a room from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @return {double}
+     */
+    public double quote(Room room, int checkIn, int checkOut)
+    {
+        return getEntry(room, checkIn, checkOut).price;
+    }
+
+    /**
+     * Returns the number of lookups served by the cache.
+     * 
+     * @return {long}
+     */
+    public long getNumOfHits()
+    {
+        return numOfHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to be computed anew.
+     * 
+     * @return {long}
+     */
+    public long getNumOfMisses()
+    {
+        return numOfMisses.sum();
+    }
+
+    /**
+     * Returns the share of lookups served by the cache, or 0 if there were
+     * no lookups.
+     * 
+     * @return {double}
+     */
+    public double getHitRate()
+    {
+        long hits = getNumOfHits();
+        long total = hits + getNumOfMisses();
+
+        return (total > 0) ? (double) hits / total : 0;
+    }
+
+    /**
+     * Returns the number of entries in the cache, including stale ones.
+     * 
+     * @return {int}
+     */
+    public synchronized int getNumOfEntries()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns an up-to-date entry for a room and the dates of a stay,
+     * computing it if needed.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {Entry}
+     */
+    private Entry getEntry(Room room, int checkIn, int checkOut)
+    {
+        Key key = new Key(room, checkIn, checkOut);
+
+        // The version is read first, so a change made meanwhile makes the result stale.
+        long version = room.getVersion();
+
+        synchronized (this)
+        {
+            Entry entry = entries.get(key);
+
+            if (entry != null && entry.version == version)
+            {
+                numOfHits.increment();
+                return entry;
+            }
+        }
+        numOfMisses.increment();
+
+        // Computed outside the lock so slow lookups do not hold up other rooms.
+        Entry entry = new Entry(version, room.areDatesAvailable(checkIn, checkOut),
+                                room.quote(checkIn, checkOut));
+
+        synchronized (this)
+        {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /* -------------------------------- REMOVERS -------------------------------- */
+
+    /**
+     * Removes every entry and resets the hit and miss counts.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        numOfHits.reset();
+        numOfMisses.reset();
+    }
+}
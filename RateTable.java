@@ -0,0 +1,240 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Stores the price rates of the nights of a calendar.
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The rate table class.
+ * 
+ * Nights are epoch days and are priced at 100% unless a rate is set. Rates
+ * are grouped into segments of 256 nights, and only segments holding a set
+ * rate are kept. Each segment also keeps the running sum of its rates, so
+ * the rates of a stay add up with two lookups per segment it spans.
+ */
+public class RateTable
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private final HashMap<Integer, Segment> segments; // The set rates by segment.
+
+    private static final int SEGMENT_SHIFT = 8;            // Nights per segment as a power of 2.
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * The rates of a segment of nights.
+     */
+    private static class Segment
+    {
+        private final double[] rates;           // The rate of each night.
+        private final double[] cumulativeRates; // Index i holds the sum of the rates before night i.
+        private int numOfSet;                   // The number of nights not at 100%.
+
+        /**
+         * Constructs a segment with every night at 100%.
+         */
+        private Segment()
+        {
+            this.rates = new double[SEGMENT_SIZE];
+            this.cumulativeRates = new double[SEGMENT_SIZE + 1];
+            this.numOfSet = 0;
+
+            Arrays.fill(rates, 1.0);
+            update(0);
+        }
+
+        /**
+         * Rebuilds the running sums from a given night onwards.
+         * 
+         * @param offset {int} The first night whose rate changed.
+         */
+        private void update(int offset)
+        {
+            for (int i = offset + 1; i <= SEGMENT_SIZE; i++)
+            {
+                cumulativeRates[i] = cumulativeRates[i - 1] + rates[i - 1];
+            }
+        }
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a table with every night at 100%.
+     */
+    public RateTable()
+    {
+        this.segments = new HashMap<>();
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the rate of a given date.
+     * 
+     * @param date {int} The date.
+     * @return {double}
+     */
+    public double getRate(int date)
+    {
+        Segment segment = segments.get(date >> SEGMENT_SHIFT);
+
+        return (segment != null) ? segment.rates[date & SEGMENT_MASK] : 1.0;
+    }
+
+    /**
+     * Returns the sum of the rates from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {double}
+     */
+    public double getSum(int checkIn, int checkOut)
+    {
+        double sum = 0;
+        int night = checkIn;
+
+        while (night < checkOut)
+        {
+            int key = night >> SEGMENT_SHIFT;
+            int end = Math.min(checkOut, (key + 1) << SEGMENT_SHIFT);
+            Segment segment = segments.get(key);
+
+            if (segment == null)
+                sum += end - night;
+            else
+                sum += segment.cumulativeRates[((end - 1) & SEGMENT_MASK) + 1] -
+                       segment.cumulativeRates[night & SEGMENT_MASK];
+
+            night = end;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the dates whose rates are not at 100%, in ascending order.
+     * 
+     * @return {int[]}
+     */
+    public int[] getDates()
+    {
+        int num = 0;
+
+        for (Segment segment : segments.values())
+        {
+            num += segment.numOfSet;
+        }
+
+        int[] dates = new int[num];
+        int i = 0;
+
+        for (Integer key : segments.keySet())
+        {
+            Segment segment = segments.get(key);
+
+            for (int offset = 0; offset < SEGMENT_SIZE; offset++)
+            {
+                if (segment.rates[offset] != 1.0)
+                    dates[i++] = (key << SEGMENT_SHIFT) + offset;
+            }
+        }
+        Arrays.sort(dates);
+        return dates;
+    }
+
+    /* --------------------------------- SETTERS -------------------------------- */
+
+    /**
+     * Sets the rate of a given date.
+     * 
+     * @param date {int} The date.
+     * @param rate {double} The rate.
+     */
+    public void setRate(int date, double rate)
+    {
+        int key = date >> SEGMENT_SHIFT;
+        int offset = date & SEGMENT_MASK;
+        Segment segment = segments.get(key);
+
+        if (segment == null)
+        {
+            if (rate == 1.0)
+                return;
+
+            segment = new Segment();
+            segments.put(key, segment);
+        }
+
+        if (segment.rates[offset] != 1.0)
+            segment.numOfSet--;
+        if (rate != 1.0)
+            segment.numOfSet++;
+
+        segment.rates[offset] = rate;
+
+        // Drops segments that are back to 100% throughout.
+        if (segment.numOfSet == 0)
+            segments.remove(key);
+        else
+            segment.update(offset);
+    }
+
+    /**
+     * Sets the rate of every date from a given date up to the day before
+     * another.
+     * 
+     * Each segment spanned has its running sums rebuilt once, however many
+     * of its nights change.
+     * 
+     * @param from {int} The first date.
+     * @param to {int} The day after the last date.
+     * @param rate {double} The rate.
+     */
+    public void setRates(int from, int to, double rate)
+    {
+        int date = from;
+
+        while (date < to)
+        {
+            int key = date >> SEGMENT_SHIFT;
+            int end = Math.min(to, (key + 1) << SEGMENT_SHIFT);
+            Segment segment = segments.get(key);
+
+            if (segment == null && rate == 1.0)
+            {
+                date = end;
+                continue;
+            }
+
+            if (segment == null)
+            {
+                segment = new Segment();
+                segments.put(key, segment);
+            }
+
+            int first = date & SEGMENT_MASK;
+
+            for (int offset = first; date < end; date++, offset++)
+            {
+                if (segment.rates[offset] != 1.0)
+                    segment.numOfSet--;
+                if (rate != 1.0)
+                    segment.numOfSet++;
+
+                segment.rates[offset] = rate;
+            }
+
+            // Drops segments that are back to 100% throughout.
+            if (segment.numOfSet == 0)
+                segments.remove(key);
+            else
+                segment.update(first);
+        }
+    }
+}
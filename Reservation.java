@@ -3,16 +3,19 @@
  * @author Mariella Jeanne A. Dellosa
  */
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**  
  * The reservation class.
+ * 
+ * Every reservation has an id unique across the system, by which it can be
+ * found through the heap.
  */
 public class Reservation
 {    
     /* ------------------------------- ATTRIBUTES ------------------------------- */
 
+    private final long id;                        // The reservation's id.
     private final String guestName;               // The guest's name.
 
     private final int checkIn;                    // The check-in date.
@@ -21,8 +24,13 @@ public class Reservation
     private final Room room;                      // The reservation's room.
     private double nightlyPrice;                  // The nightly price.
     private double totalPrice;                    // The overall price.
-    private final HashMap<Integer, Double> rates; // The rates of each night.
-    private final ArrayList<String> codes;        // The codes applied.
+    private final double[] rates;                 // The rates of each night.
+    private long codes;                           // The ids of the codes applied.
+    private final long eligible;                  // The ids of the codes the stay may use.
+    private final int numOfChecked;               // The number of codes checked for eligibility.
+    private int slot;                             // The reservation's index in its room.
+
+    private static final AtomicLong nextId = new AtomicLong(1); // The id of the next reservation.
 
     /* ------------------------------- CONSTRUCTOR ------------------------------ */
 
@@ -37,32 +45,107 @@ public class Reservation
      */
     public Reservation(String guestName, Room room, int checkIn, int checkOut)
     {
+        this(nextId.getAndIncrement(), guestName, room, checkIn, checkOut);
+    }
+
+    /** 
+     * Constructs a reservation with a given id, such as one being restored.
+     * 
+     * @param id {long} The reservation's id.
+     * @param guestName {String} The guest's name.
+     * @param room {Room} The reservation's room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     */
+    public Reservation(long id, String guestName, Room room, int checkIn, int checkOut)
+    {
+        this.id = id;
         this.guestName = guestName;
         this.room = room;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
 
+        // Read once, so a concurrent change to the hotel's prices cannot split the stay.
         this.nightlyPrice = room.getBasePrice();
         
-        this.rates = new HashMap<>();
+        // Index 0 holds the rate of the check-in night.
+        this.rates = new double[Math.max(checkOut - checkIn, 0)];
+
+        double sumOfRates = 0;
 
-        for (int i = checkIn; i < checkOut; i++)
+        for (int i = 0; i < rates.length; i++)
         {
-            rates.put(i, room.getRate(i));
+            rates[i] = room.getRate(checkIn + i);
+            sumOfRates += rates[i];
         }
 
-        this.totalPrice = (checkOut - checkIn - rates.size()) * nightlyPrice;
+        this.totalPrice = nightlyPrice * sumOfRates;
 
-        for (Integer i : rates.keySet())
-        {
-            this.totalPrice += nightlyPrice * rates.get(i);
-        }
+        this.codes = 0L;
+        this.numOfChecked = Discount.getNumOfDiscounts();
+        this.eligible = Discount.getEligibleIds(checkIn, checkOut);
+
+        // Later reservations never reuse a restored id.
+        skipId(id);
+    }
+
+    /**
+     * Constructs a reservation exactly as it was saved, keeping its prices,
+     * rates, and applied codes even if the room's have since changed.
+     * 
+     * @param id {long} The reservation's id.
+     * @param guestName {String} The guest's name.
+     * @param room {Room} The reservation's room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @param nightlyPrice {double} The nightly price.
+     * @param totalPrice {double} The overall price.
+     * @param rates {double[]} The rates of each night, starting at check-in.
+     * @param codes {long} The ids of the codes applied.
+     */
+    public Reservation(long id, String guestName, Room room, int checkIn, int checkOut,
+                       double nightlyPrice, double totalPrice, double[] rates,
+                       long codes)
+    {
+        this.id = id;
+        this.guestName = guestName;
+        this.room = room;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+
+        this.nightlyPrice = nightlyPrice;
+        this.totalPrice = totalPrice;
+        this.rates = rates;
+        this.codes = codes;
 
-        this.codes = new ArrayList<>();
+        this.numOfChecked = Discount.getNumOfDiscounts();
+        this.eligible = Discount.getEligibleIds(checkIn, checkOut);
+
+        skipId(id);
     }
 
     /* --------------------------------- GETTERS -------------------------------- */
 
+    /**
+     * Returns the reservation's id.
+     * 
+     * @return {long}
+     */
+    public long getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Returns the reservation's index in its room's list of reservations.
+     * 
+     * @return {int}
+     */
+    int getSlot()
+    {
+        return this.slot;
+    }
+
     /** 
      * Returns the guest name.
      * 
@@ -141,11 +224,80 @@ public class Reservation
      */
     public double getRate(int date)
     {
-        return rates.containsKey(date) ? (double) rates.get(date) : 1.0;
+        return (date >= checkIn && date < checkOut) ? rates[date - checkIn] : 1.0;
+    }
+
+    /**
+     * Returns an applied code given the index.
+     * 
+     * Applied codes are ordered by their discount ids.
+     * 
+     * @param index {int} The index.
+     * @return {String}
+     */
+    public String getCode(int index)
+    {
+        long remaining = this.codes;
+
+        for (int i = 0; i < index; i++)
+        {
+            remaining &= remaining - 1;
+        }
+        return Discount.getDiscount(Long.numberOfTrailingZeros(remaining)).getCode();
+    }
+
+    /**
+     * Returns the number of applied codes.
+     * 
+     * @return {int}
+     */
+    public int getNumOfCodes()
+    {
+        return Long.bitCount(this.codes);
+    }
+
+    /**
+     * Returns the ids of the applied codes, with bit i set for the discount
+     * with id i.
+     * 
+     * @return {long}
+     */
+    public long getCodes()
+    {
+        return this.codes;
+    }
+
+    /**
+     * Returns the ids of the codes that may still be applied, with bit i set
+     * for the discount with id i.
+     * 
+     * @return {long}
+     */
+    public long getAvailableCodes()
+    {
+        long available = 0L;
+
+        for (int id = 0; id < Discount.getNumOfDiscounts(); id++)
+        {
+            if (isEligible(id))
+                available |= 1L << id;
+        }
+        return available & ~this.codes;
     }
 
     /* --------------------------------- SETTERS -------------------------------- */
 
+    /**
+     * Makes sure that later reservations are given ids after a given id,
+     * such as that of a reservation being restored.
+     * 
+     * @param id {long} The id.
+     */
+    public static void skipId(long id)
+    {
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+
     /**  
      * Sets the reservation's nightly price.
      * 
@@ -156,6 +308,18 @@ public class Reservation
         this.nightlyPrice = nightlyPrice;
     }
 
+    /**
+     * Sets the reservation's index in its room's list of reservations.
+     * 
+     * Only called by the room.
+     * 
+     * @param slot {int} The index.
+     */
+    void setSlot(int slot)
+    {
+        this.slot = slot;
+    }
+
     /**
      * Sets the reservation's discount.
      * 
@@ -166,42 +330,29 @@ public class Reservation
      */
     public boolean setDiscount(String code)
     {
-        /*   
-         * Code: "I_WORK_HERE"
-         * Applies a 10% discount.
-         */
-        if (code.equals("I_WORK_HERE") && !codes.contains(code))
-        {
-            totalPrice *= 0.90;
-            codes.add(code);
-            return true;
-        }
-        /*   
-         * Code: "STAY4_GET1"
-         * The first day is free if there are more than 5 reservation days.
-         */
-        else if (code.equals("STAY4_GET1") && !codes.contains(code) &&
-                (checkOut - checkIn) >= 5)
-        {
-            totalPrice -= nightlyPrice * (rates.containsKey(checkIn) ?
-                          (double) rates.get(checkIn) : 1);
-            codes.add(code);
-            return true;
-        }
-        /*   
-         * Code: "PAYDAY"
-         * Applies a 7% discount if the reservation dates include 15 or 30.
-         * This excludes the check-out date.
-         */
-        else if (code.equals("PAYDAY") && !codes.contains(code) &&
-                ((15 >= checkIn && 15 < checkOut) ||
-                 (30 >= checkIn && 30 < checkOut)))
-        {
-            totalPrice *= 0.93;
-            codes.add(code);
-            return true;
-        }
-        return false;
+        return setDiscount(Discount.getId(code));
+    }
+
+    /**
+     * Sets the reservation's discount given the discount's id.
+     * 
+     * Returns true only if the discount exists, has not been applied yet, and
+     * may be used by the stay.
+     * 
+     * @param id {int} The discount's id.
+     * @return {boolean}
+     */
+    public boolean setDiscount(int id)
+    {
+        if (id < 0 || (codes & (1L << id)) != 0 || !isEligible(id))
+            return false;
+
+        Discount discount = Discount.getDiscount(id);
+
+        updateTotalPrice(discount.apply(this, totalPrice));
+        codes |= 1L << id;
+        Journal.getInstance().logSetDiscount(this, discount.getCode());
+        return true;
     }
 
     /* --------------------------------- ADDERS --------------------------------- */
@@ -210,6 +361,17 @@ public class Reservation
 
     /* -------------------------------- UPDATERS -------------------------------- */
 
+    /**
+     * Updates the total reservation price and the room's running total.
+     * 
+     * @param totalPrice {double} The new total price.
+     */
+    private void updateTotalPrice(double totalPrice)
+    {
+        room.updateTotalPrice(totalPrice - this.totalPrice);
+        this.totalPrice = totalPrice;
+    }
+
     /* --------------------------------- ADDERS --------------------------------- */
 
     /* -------------------------------- REMOVERS -------------------------------- */
@@ -217,4 +379,23 @@ public class Reservation
     /* -------------------------------- UPDATERS -------------------------------- */
 
     /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Determines if the stay may use a discount given the discount's id.
+     * 
+     * Discounts registered after the reservation was made are checked
+     * directly; the rest were checked once when it was made.
+     * 
+     * @param id {int} The discount's id.
+     * @return {boolean}
+     */
+    public boolean isEligible(int id)
+    {
+        if (id < numOfChecked)
+            return (eligible & (1L << id)) != 0;
+
+        Discount discount = Discount.getDiscount(id);
+
+        return discount != null && discount.isEligible(checkIn, checkOut);
+    }
 }
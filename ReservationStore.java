@@ -0,0 +1,336 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Stores the completed reservations of a hotel for reports.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The reservation store class.
+ * 
+ * Reservations are stored by column, with one buffer per field and one row
+ * per reservation. The buffers are direct, so they sit outside the Java
+ * heap and archived stays add nothing for the garbage collector to trace.
+ * Guest and room names are kept on the heap, each stored once and referred
+ * to by number, so a stored reservation takes about 50 bytes and a report
+ * reads only the columns it needs, in order.
+ * 
+ * Stored reservations keep their prices and codes but not their per-night
+ * rates.
+ */
+public class ReservationStore
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    /*
+     * Columns.
+     */
+    private LongBuffer ids;              // The reservations' ids.
+    private IntBuffer guests;            // The numbers of the guests' names.
+    private IntBuffer rooms;             // The numbers of the rooms' names.
+    private IntBuffer checkIns;          // The check-in dates.
+    private IntBuffer checkOuts;         // The check-out dates.
+    private DoubleBuffer nightlyPrices;  // The nightly prices.
+    private DoubleBuffer totalPrices;    // The overall prices.
+    private LongBuffer codes;            // The ids of the codes applied.
+    private int numOfRows;               // The number of reservations stored.
+
+    /*
+     * Names.
+     */
+    private final ArrayList<String> names;          // The names by number.
+    private final HashMap<String, Integer> numbers; // The numbers by name.
+
+    private static final int INITIAL_CAPACITY = 64; // The initial number of rows.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs an empty store.
+     */
+    public ReservationStore()
+    {
+        this.ids = allocate(INITIAL_CAPACITY, Long.BYTES).asLongBuffer();
+        this.guests = allocate(INITIAL_CAPACITY, Integer.BYTES).asIntBuffer();
+        this.rooms = allocate(INITIAL_CAPACITY, Integer.BYTES).asIntBuffer();
+        this.checkIns = allocate(INITIAL_CAPACITY, Integer.BYTES).asIntBuffer();
+        this.checkOuts = allocate(INITIAL_CAPACITY, Integer.BYTES).asIntBuffer();
+        this.nightlyPrices = allocate(INITIAL_CAPACITY, Double.BYTES).asDoubleBuffer();
+        this.totalPrices = allocate(INITIAL_CAPACITY, Double.BYTES).asDoubleBuffer();
+        this.codes = allocate(INITIAL_CAPACITY, Long.BYTES).asLongBuffer();
+        this.numOfRows = 0;
+
+        this.names = new ArrayList<>();
+        this.numbers = new HashMap<>();
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the number of reservations stored.
+     * 
+     * @return {int}
+     */
+    public synchronized int getNumOfReservations()
+    {
+        return this.numOfRows;
+    }
+
+    /**
+     * Returns the id of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {long}
+     */
+    public synchronized long getId(int row)
+    {
+        return ids.get(row);
+    }
+
+    /**
+     * Returns the guest name of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {String}
+     */
+    public synchronized String getGuestName(int row)
+    {
+        return names.get(guests.get(row));
+    }
+
+    /**
+     * Returns the room name of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {String}
+     */
+    public synchronized String getRoomName(int row)
+    {
+        return names.get(rooms.get(row));
+    }
+
+    /**
+     * Returns the check-in date of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {int}
+     */
+    public synchronized int getCheckIn(int row)
+    {
+        return checkIns.get(row);
+    }
+
+    /**
+     * Returns the check-out date of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {int}
+     */
+    public synchronized int getCheckOut(int row)
+    {
+        return checkOuts.get(row);
+    }
+
+    /**
+     * Returns the nightly price of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {double}
+     */
+    public synchronized double getNightlyPrice(int row)
+    {
+        return nightlyPrices.get(row);
+    }
+
+    /**
+     * Returns the total price of a stored reservation.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {double}
+     */
+    public synchronized double getTotalPrice(int row)
+    {
+        return totalPrices.get(row);
+    }
+
+    /**
+     * Returns the ids of the codes applied to a stored reservation, with bit
+     * i set for the discount with id i.
+     * 
+     * @param row {int} The reservation's row.
+     * @return {long}
+     */
+    public synchronized long getCodes(int row)
+    {
+        return codes.get(row);
+    }
+
+    /**
+     * Returns the total price of the stored reservations checking out from a
+     * given date up to the day before another.
+     * 
+     * @param from {int} The first check-out date.
+     * @param to {int} The day after the last check-out date.
+     * @return {double}
+     */
+    public synchronized double getRevenue(int from, int to)
+    {
+        double revenue = 0;
+
+        // Reads only the check-out and price columns.
+        for (int row = 0; row < numOfRows; row++)
+        {
+            int checkOut = checkOuts.get(row);
+
+            if (checkOut >= from && checkOut < to)
+                revenue += totalPrices.get(row);
+        }
+        return revenue;
+    }
+
+    /**
+     * Returns the rows of a guest's stored reservations, matching the guest
+     * name ignoring case.
+     * 
+     * @param guestName {String} The guest name.
+     * @return {int[]}
+     */
+    public synchronized int[] findRows(String guestName)
+    {
+        // Compares numbers rather than strings when scanning the rows.
+        boolean[] isMatch = new boolean[names.size()];
+        boolean isFound = false;
+
+        for (int i = 0; i < names.size(); i++)
+        {
+            if (names.get(i).equalsIgnoreCase(guestName))
+            {
+                isMatch[i] = true;
+                isFound = true;
+            }
+        }
+
+        int[] rows = new int[isFound ? numOfRows : 0];
+        int num = 0;
+
+        for (int row = 0; row < rows.length; row++)
+        {
+            if (isMatch[guests.get(row)])
+                rows[num++] = row;
+        }
+        return Arrays.copyOf(rows, num);
+    }
+
+    /* --------------------------------- ADDERS --------------------------------- */
+
+    /**
+     * Stores a reservation.
+     * 
+     * @param reservation {Reservation} The reservation.
+     */
+    public void addReservation(Reservation reservation)
+    {
+        addReservation(reservation.getId(), reservation.getGuestName(),
+                       reservation.getRoomName(), reservation.getCheckIn(),
+                       reservation.getCheckOut(), reservation.getNightlyPrice(),
+                       reservation.getTotalPrice(), reservation.getCodes());
+    }
+
+    /**
+     * Stores a reservation given its fields, such as one being restored.
+     * 
+     * @param id {long} The reservation's id.
+     * @param guestName {String} The guest name.
+     * @param roomName {String} The room name.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @param nightlyPrice {double} The nightly price.
+     * @param totalPrice {double} The overall price.
+     * @param codes {long} The ids of the codes applied.
+     */
+    public synchronized void addReservation(long id, String guestName, String roomName,
+                                            int checkIn, int checkOut, double nightlyPrice,
+                                            double totalPrice, long codes)
+    {
+        if (numOfRows == ids.capacity())
+            grow();
+
+        // Stored ids stay unique among the reservations made later.
+        Reservation.skipId(id);
+
+        ids.put(numOfRows, id);
+        guests.put(numOfRows, getNumber(guestName));
+        rooms.put(numOfRows, getNumber(roomName));
+        checkIns.put(numOfRows, checkIn);
+        checkOuts.put(numOfRows, checkOut);
+        nightlyPrices.put(numOfRows, nightlyPrice);
+        totalPrices.put(numOfRows, totalPrice);
+        this.codes.put(numOfRows, codes);
+        numOfRows++;
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns the number of a name, adding the name if it is new.
+     * 
+     * @param name {String} The name.
+     * @return {int}
+     */
+    private int getNumber(String name)
+    {
+        Integer number = numbers.get(name);
+
+        if (number == null)
+        {
+            number = names.size();
+            names.add(name);
+            numbers.put(name, number);
+        }
+        return number;
+    }
+
+    /**
+     * Doubles the number of rows the store can hold.
+     */
+    private void grow()
+    {
+        // A buffer holds at most 2 GB, or about 268 million rows of longs.
+        if (ids.capacity() > Integer.MAX_VALUE / (2 * Long.BYTES))
+            throw new IllegalStateException("The reservation store is full");
+
+        int capacity = ids.capacity() * 2;
+
+        ids = allocate(capacity, Long.BYTES).asLongBuffer().put(ids.clear());
+        guests = allocate(capacity, Integer.BYTES).asIntBuffer().put(guests.clear());
+        rooms = allocate(capacity, Integer.BYTES).asIntBuffer().put(rooms.clear());
+        checkIns = allocate(capacity, Integer.BYTES).asIntBuffer().put(checkIns.clear());
+        checkOuts = allocate(capacity, Integer.BYTES).asIntBuffer().put(checkOuts.clear());
+        nightlyPrices = allocate(capacity, Double.BYTES).asDoubleBuffer()
+                                                        .put(nightlyPrices.clear());
+        totalPrices = allocate(capacity, Double.BYTES).asDoubleBuffer()
+                                                      .put(totalPrices.clear());
+        codes = allocate(capacity, Long.BYTES).asLongBuffer().put(codes.clear());
+    }
+
+    /**
+     * Returns a direct buffer for a column of a given number of rows.
+     * 
+     * @param capacity {int} The number of rows.
+     * @param size {int} The size of a value, in bytes.
+     * @return {ByteBuffer}
+     */
+    private static ByteBuffer allocate(int capacity, int size)
+    {
+        return ByteBuffer.allocateDirect(capacity * size).order(ByteOrder.nativeOrder());
+    }
+}
@@ -6,7 +6,7 @@
  */
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The room class.
@@ -15,36 +15,45 @@ public class Room
 {
     /* ------------------------------- ATTRIBUTES ------------------------------- */
 
+    private volatile Hotel hotel;                      // Room's hotel, or null once removed.
+    private final int index;                           // Room's hotel index.
     private final String name;                         // Room's name.
-    private final String type;                         // Room's type.
+    private final RoomType type;                       // Room's type.
 
-    private double basePrice;                          // Room's base price.
-    private final HashMap<Integer, Double> rates;      // Room's price rates.
+    private double basePrice;                          // Room's own base price, or NaN to follow its hotel's.
+    private final RateTable rates;                     // Room's price rates.
     private final ArrayList<Reservation> reservations; // Room's reservations.
+    private final Occupancy occupancy;                 // Room's booked nights.
+    private double totalPrice;                         // Room's total earnings.
+    private final AtomicLong version;                  // Room's number of changes.
     
     /* ------------------------------- CONSTRUCTOR ------------------------------ */
 
     /**
-     * Constructs a room given the name and base price.
+     * Constructs a room given its hotel, index, name, and type.
      * 
+     * The room follows its hotel's price for its type until given its own.
+     * 
+     * @param hotel {Hotel} The room's hotel.
+     * @param index {int} The room's index in the hotel.
      * @param name {String} The room's name.
-     * @param type {String} The room's type.
-     * @param basePrice {double} The room's base price.
+     * @param type {RoomType} The room's type.
      */
-    public Room(String name, String type, double basePrice)
+    public Room(Hotel hotel, int index, String name, RoomType type)
     {
+        this.hotel = hotel;
+        this.index = index;
         this.name = name;
         this.type = type;
 
-        this.basePrice = switch (type)
-        {
-            case "DELUXE" -> basePrice * 1.20;
-            case "EXECUTIVE" -> basePrice * 1.35;
-            default -> basePrice;
-        };
+        this.basePrice = Double.NaN;
         
-        this.rates = new HashMap<>();
+        // Every night is priced at 100% until a rate is set.
+        this.rates = new RateTable();
+
         this.reservations = new ArrayList<>();
+        this.occupancy = new Occupancy();
+        this.version = new AtomicLong();
     }
 
     /* --------------------------------- GETTERS -------------------------------- */
@@ -59,12 +68,32 @@ public class Room
         return this.name;
     }
 
+    /**
+     * Returns the room's hotel, or null if the room was removed from it.
+     * 
+     * @return {Hotel}
+     */
+    public Hotel getHotel()
+    {
+        return this.hotel;
+    }
+
+    /**
+     * Returns the room's index in its hotel.
+     * 
+     * @return {int}
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+
     /**
      * Returns the room's type.
      * 
-     * @return {String}
+     * @return {RoomType}
      */
-    public String type()
+    public RoomType type()
     {
         return this.type;
     }
@@ -72,11 +101,18 @@ public class Room
     /**  
      * Returns the room's base price.
      * 
+     * Unless the room was given its own, this is its hotel's current price
+     * for the room's type.
+     * 
      * @return {double}
      */
     public double getBasePrice()
     {
-        return this.basePrice;
+        // Read before the price, as detach() sets the price before clearing the hotel.
+        Hotel hotel = this.hotel;
+        double basePrice = this.basePrice;
+
+        return Double.isNaN(basePrice) ? hotel.getPrice(type) : basePrice;
     }
 
     /**
@@ -86,24 +122,61 @@ public class Room
      */
     public double getTotalPrice()
     {
-        double sum = 0;
-
-        for (int i = 0; i < getNumOfReservations(); i++)
-        {
-            sum += getReservation(i).getTotalPrice();
-        }
-
-        return sum;
+        return this.totalPrice;
     }
 
     /**
      * Returns the rate of a given date.
      * 
+     * Returns 1.0 if no rate was set for the date.
+     * 
+     * @param date {int} The date, in epoch days.
      * @return {double}
      */
     public double getRate(int date)
     {
-        return rates.get(date);
+        return rates.getRate(date);
+    }
+
+    /**
+     * Returns the dates with a set rate, in ascending order.
+     * 
+     * @return {int[]}
+     */
+    public int[] getRatedDates()
+    {
+        return rates.getDates();
+    }
+
+    /**
+     * Returns the price of a stay from the check-in date up to the night
+     * before the check-out date.
+     * 
+     * Nights without a set rate are priced at 100%.
+     * 
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @return {double}
+     */
+    public double quote(int checkIn, int checkOut)
+    {
+        return rates.getSum(checkIn, checkOut) * getBasePrice();
+    }
+
+    /**
+     * Returns the room's version, which changes whenever the room's
+     * availability or prices change.
+     * 
+     * Both counts only ever grow, so their sum also changes when the
+     * hotel's prices do.
+     * 
+     * @return {long}
+     */
+    public long getVersion()
+    {
+        Hotel hotel = this.hotel;
+
+        return this.version.get() + ((hotel != null) ? hotel.getPriceVersion() : 0);
     }
 
     /**
@@ -130,13 +203,20 @@ public class Room
     /* --------------------------------- SETTERS -------------------------------- */
 
     /**   
-     * Sets the room's base price. 
+     * Sets the room's own base price, which it keeps even if its hotel's
+     * price changes.
      * 
-     * @param basePrice {int} The room's base price.
+     * @param basePrice {double} The room's base price.
      */
-    public void setBasePrice(int basePrice)
+    public void setBasePrice(double basePrice)
     {
-        this.basePrice = basePrice;
+        BookingEngine.getInstance().update(this, room ->
+        {
+            room.basePrice = basePrice;
+            room.updateVersion();
+            Journal.getInstance().logSetBasePrice(room, basePrice);
+            return null;
+        });
     }
 
     /**
@@ -144,7 +224,7 @@ public class Room
      * 
      * Returns true if the rate modification is successful.
      * 
-     * @param date {int} The date.
+     * @param date {int} The date, in epoch days.
      * @param rate {double} The rate.
      * 
      * @return {boolean}
@@ -152,14 +232,66 @@ public class Room
     public boolean setDateRate(int date, double rate)
     {
         /*  
-         * The given date must be within 1 to 30.
-         * This does not include 31 because we are only counting nights.
-         * 
          * The rate must be within 50% to 150%.
          */
-        if ((date >= 1 && date <= 30) && (rate >= .5 && rate <= 1.5))
+        if (rate >= .5 && rate <= 1.5)
         {
-            rates.put(date, rate);
+            BookingEngine.getInstance().update(this, room ->
+            {
+                room.rates.setRate(date, rate);
+                room.updateVersion();
+                Journal.getInstance().logSetDateRate(room, date, rate);
+                return null;
+            });
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the rate of every date from a given date up to the day before
+     * another.
+     * 
+     * Returns true if the rate modification is successful.
+     * 
+     * @param from {int} The first date, in epoch days.
+     * @param to {int} The day after the last date, in epoch days.
+     * @param rate {double} The rate.
+     * @return {boolean}
+     */
+    public boolean setDateRates(int from, int to, double rate)
+    {
+        return BookingEngine.getInstance().update(this, room ->
+        {
+            if (room.applyDateRates(from, to, rate))
+            {
+                Journal.getInstance().logSetDateRates(room, from, to, rate);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Sets the rate of every date from a given date up to the day before
+     * another without recording the change.
+     * 
+     * Only called by the room and its hotel, which records the change once
+     * for all of its rooms. Either holds the room's lock in BookingEngine.
+     * 
+     * @param from {int} The first date, in epoch days.
+     * @param to {int} The day after the last date, in epoch days.
+     * @param rate {double} The rate.
+     * @return {boolean}
+     */
+    boolean applyDateRates(int from, int to, double rate)
+    {
+        if (from < to && rate >= .5 && rate <= 1.5)
+        {
+            // The room changes once, however many nights the range covers.
+            rates.setRates(from, to, rate);
+            updateVersion();
+            return true;
         }
         return false;
     }
@@ -169,14 +301,56 @@ public class Room
     /**   
      * Adds a reservation to the room.
      * 
+     * Returns the added reservation.
+     * 
+     * This does not check availability nor guard against concurrent
+     * bookings; see BookingEngine for an atomic check-and-reserve.
+     * 
      * @param guestName {String} The guest name.
      * @param checkIn {int} The check-in date.
      * @param checkOut {int} The check-out date.
-     * @param code {String} The discount code.
+     * @return {Reservation}
      */
-    public void addReservation(String guestName, int checkIn, int checkOut)
+    public Reservation addReservation(String guestName, int checkIn, int checkOut)
     {
-        reservations.add(new Reservation(guestName, this, checkIn, checkOut));
+        Reservation reservation = addReservation(new Reservation(guestName, this,
+                                                                 checkIn, checkOut));
+
+        Journal.getInstance().logAddReservation(reservation);
+        return reservation;
+    }
+
+    /**
+     * Adds an existing reservation of the room, such as one being restored.
+     * 
+     * Returns the added reservation.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @return {Reservation}
+     */
+    public Reservation addReservation(Reservation reservation)
+    {
+        int checkIn = reservation.getCheckIn();
+        int checkOut = reservation.getCheckOut();
+        Hotel hotel = this.hotel;
+
+        reservation.setSlot(reservations.size());
+        reservations.add(reservation);
+        occupancy.setNights(checkIn, checkOut, true);
+
+        if (hotel != null)
+        {
+            hotel.updateOccupancy(this, checkIn, checkOut, true);
+
+            // The room is no longer without reservations.
+            if (getNumOfReservations() == 1)
+                hotel.updateNumOfAvailRooms(-1);
+
+            Heap.getInstance().addToIndex(reservation);
+        }
+        updateTotalPrice(reservation.getTotalPrice());
+        updateVersion();
+        return reservation;
     }
 
     /* -------------------------------- REMOVERS -------------------------------- */
@@ -184,43 +358,182 @@ public class Room
     /**
      * Removes a reservation.
      * 
+     * Returns true only if the reservation belonged to the room.
+     * 
+     * The room's last reservation takes the removed one's place, so the
+     * order of the room's reservations may change.
+     * 
      * @param reservation {Reservation} The reservation.
+     * @return {boolean}
+     */
+    public boolean removeReservation(Reservation reservation)
+    {
+        if (detachReservation(reservation))
+        {
+            updateTotalPrice(-reservation.getTotalPrice());
+            updateVersion();
+            Journal.getInstance().logRemoveReservation(reservation);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the reservations checking out on or before a given date to the
+     * hotel's history.
+     * 
+     * Archived reservations still count towards the room's earnings.
+     * 
+     * Returns the number of reservations moved.
+     * 
+     * @param date {int} The date, in epoch days.
+     * @return {int}
      */
-    public void removeReservation(Reservation reservation)
+    public int archiveReservations(int date)
     {
-        reservations.remove(reservation);
+        Hotel hotel = this.hotel;
+
+        if (hotel == null)
+            return 0;
+
+        int num = 0;
+
+        // Walks backwards, since each removal moves the last reservation forward.
+        for (int i = getNumOfReservations() - 1; i >= 0; i--)
+        {
+            Reservation reservation = reservations.get(i);
+
+            if (reservation.getCheckOut() <= date && detachReservation(reservation))
+            {
+                hotel.getHistory().addReservation(reservation);
+                num++;
+            }
+        }
+
+        if (num > 0)
+            updateVersion();
+
+        return num;
+    }
+
+    /**
+     * Removes a reservation from the room's list and calendars, leaving the
+     * earnings unchanged.
+     * 
+     * Returns true only if the reservation belonged to the room.
+     * 
+     * @param reservation {Reservation} The reservation.
+     * @return {boolean}
+     */
+    private boolean detachReservation(Reservation reservation)
+    {
+        int slot = reservation.getSlot();
+
+        if (slot >= reservations.size() || reservations.get(slot) != reservation)
+            return false;
+
+        Reservation last = reservations.remove(reservations.size() - 1);
+
+        if (last != reservation)
+        {
+            reservations.set(slot, last);
+            last.setSlot(slot);
+        }
+        occupancy.setNights(reservation.getCheckIn(), reservation.getCheckOut(), false);
+
+        Hotel hotel = this.hotel;
+
+        if (hotel != null)
+        {
+            hotel.updateOccupancy(this, reservation.getCheckIn(),
+                                  reservation.getCheckOut(), false);
+
+            // The room is now without reservations.
+            if (getNumOfReservations() == 0)
+                hotel.updateNumOfAvailRooms(1);
+
+            Heap.getInstance().removeFromIndex(reservation);
+        }
+        return true;
     }
 
     /* -------------------------------- UPDATERS -------------------------------- */
 
+    /**
+     * Updates the room's and its hotel's total earnings.
+     * 
+     * Called whenever a reservation's total price is added, removed, or
+     * discounted.
+     * 
+     * @param change {double} The change in earnings.
+     */
+    public void updateTotalPrice(double change)
+    {
+        this.totalPrice += change;
+
+        Hotel hotel = this.hotel;
+
+        if (hotel != null)
+            hotel.updateTotalPrice(change);
+    }
+
+    /**
+     * Cuts the room off from its hotel once the hotel has removed it, so the
+     * room's later changes never reach the hotel.
+     * 
+     * The room keeps the price it had when removed. Only called by the hotel.
+     */
+    void detach()
+    {
+        Hotel hotel = this.hotel;
+
+        if (hotel == null)
+            return;
+
+        this.basePrice = getBasePrice();
+
+        // The hotel's price changes no longer count, so the room's own count jumps past them.
+        this.version.addAndGet(hotel.getPriceVersion() + 1);
+        this.hotel = null;
+    }
+
+    /**
+     * Marks a change to the room's availability or prices.
+     * 
+     * Called after the change is made, so that a result computed before the
+     * change is never stored under the new version.
+     */
+    private void updateVersion()
+    {
+        this.version.incrementAndGet();
+    }
+
     /* -------------------------------- BOOLEANS -------------------------------- */
 
+    /**
+     * Checks if the room was given its own base price rather than following
+     * its hotel's.
+     * 
+     * @return {boolean}
+     */
+    public boolean hasOwnPrice()
+    {
+        return !Double.isNaN(this.basePrice);
+    }
+
     /**   
      * Checks if the room is available given the check-in and check-out dates.
      * 
-     * @param checkIn {int} The check-in date.
-     * @param checkOut {int} The check-out date.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
      * @return {boolean}
      */
     public boolean areDatesAvailable(int checkIn, int checkOut)
     {   
-        for (int i = 0; i < getNumOfReservations(); i++)
-        {
-            /*
-             * Checks if the given check-in date is within the reservation's
-             * check-in date and the day before the reservation's check-out date.
-             * 
-             * Checks if the given check-out date is within the day after the
-             * reservation's check-in date and the reservation's check-out date.
-             */
-            if ((checkIn >= getReservation(i).getCheckIn() &&
-                checkIn < getReservation(i).getCheckOut()) ||
-
-                (checkOut > getReservation(i).getCheckIn() &&
-                checkOut <= getReservation(i).getCheckOut()))
-                
-                return false;
-        }
-        return true;
+        /*
+         * The dates are available only if none of the nights from the check-in
+         * date up to the night before the check-out date are booked.
+         */
+        return occupancy.areNightsFree(checkIn, checkOut);
     }
 }
@@ -0,0 +1,228 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Searches the available rooms of every hotel of the system.
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * The room search class.
+ * 
+ * Each hotel is searched as its own task on the common fork-join pool, using
+ * the hotel's per-night index of booked rooms, so the time taken by a search
+ * depends on the largest hotel rather than on the number of hotels.
+ * 
+ * Results reflect the rooms at the time of the search. A room found to be
+ * available may be booked before it is reserved; BookingEngine checks it
+ * again when reserving.
+ */
+public class RoomSearch
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    /*
+     * Orders results by price, then by hotel name and room order.
+     */
+    private static final Comparator<Result> BY_PRICE =
+        Comparator.comparingDouble(Result::getPrice)
+                  .thenComparing(Result::getHotelName)
+                  .thenComparingInt(result -> result.getRoom().getIndex());
+
+    /**
+     * An available room and its price for the searched dates.
+     */
+    public static class Result
+    {
+        private final Room room;          // The room.
+        private final String hotelName;   // The room's hotel's name when found.
+        private final double price;       // The room's price for the stay.
+
+        /**
+         * Constructs a result given the room, its hotel's name, and its price.
+         * 
+         * The hotel's name is kept, since the room may be removed from its
+         * hotel, or the hotel renamed, while results are still being ordered.
+         * 
+         * @param room {Room} The room.
+         * @param hotelName {String} The room's hotel's name.
+         * @param price {double} The room's price for the stay.
+         */
+        private Result(Room room, String hotelName, double price)
+        {
+            this.room = room;
+            this.hotelName = hotelName;
+            this.price = price;
+        }
+
+        /**
+         * Returns the room.
+         * 
+         * @return {Room}
+         */
+        public Room getRoom()
+        {
+            return this.room;
+        }
+
+        /**
+         * Returns the name the room's hotel had when the room was found.
+         * 
+         * @return {String}
+         */
+        public String getHotelName()
+        {
+            return this.hotelName;
+        }
+
+        /**
+         * Returns the room's price for the stay.
+         * 
+         * @return {double}
+         */
+        public double getPrice()
+        {
+            return this.price;
+        }
+    }
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Prevents the room search class from being instantiated.
+     */
+    private RoomSearch()
+    {
+    }
+
+    /* --------------------------------- SEARCH --------------------------------- */
+
+    /**
+     * Returns the cheapest rooms of a given type, across every hotel, that are
+     * available from the check-in date up to the night before the check-out
+     * date and whose price for the stay is at most the given price.
+     * 
+     * Returns at most the given number of rooms, from cheapest to priciest.
+     * Rooms of any type are searched if the given type is null.
+     * 
+     * @param type {RoomType} The room type.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @param maxPrice {double} The max price for the stay.
+     * @param limit {int} The max number of rooms to return.
+     * @return {ArrayList<Result>}
+     */
+    public static ArrayList<Result> findCheapest(RoomType type, int checkIn, int checkOut,
+                                                 double maxPrice, int limit)
+    {
+        ArrayList<Result> results = new ArrayList<>();
+
+        if (checkIn >= checkOut || limit < 1)
+            return results;
+
+        // Each hotel keeps its own cheapest rooms, which are then merged.
+        PriorityQueue<Result> cheapest = Heap.getInstance().getHotels().parallelStream()
+            .map(hotel ->
+            {
+                PriorityQueue<Result> found = new PriorityQueue<>(BY_PRICE.reversed());
+
+                findRooms(hotel, type, checkIn, checkOut, maxPrice,
+                          result -> offer(found, result, limit));
+                return found;
+            })
+            .reduce(new PriorityQueue<>(BY_PRICE.reversed()), (left, right) ->
+            {
+                PriorityQueue<Result> merged = new PriorityQueue<>(BY_PRICE.reversed());
+
+                for (Result result : left)
+                {
+                    offer(merged, result, limit);
+                }
+                for (Result result : right)
+                {
+                    offer(merged, result, limit);
+                }
+
+                return merged;
+            });
+
+        results.addAll(cheapest);
+        results.sort(BY_PRICE);
+        return results;
+    }
+
+    /**
+     * Passes every room of a given type, across every hotel, that is available
+     * from the check-in date up to the night before the check-out date and
+     * whose price for the stay is at most the given price to a consumer.
+     * 
+     * Rooms are passed as soon as they are found, in no particular order and
+     * possibly from several threads at once, so the consumer must be safe to
+     * call concurrently. Returns once every hotel is searched. Rooms of any
+     * type are searched if the given type is null.
+     * 
+     * @param type {RoomType} The room type.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @param maxPrice {double} The max price for the stay.
+     * @param consumer {Consumer<Result>} Receives each room found.
+     */
+    public static void findAll(RoomType type, int checkIn, int checkOut, double maxPrice,
+                               Consumer<Result> consumer)
+    {
+        if (checkIn >= checkOut)
+            return;
+
+        Heap.getInstance().getHotels().parallelStream()
+            .forEach(hotel -> findRooms(hotel, type, checkIn, checkOut, maxPrice, consumer));
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Passes the matching rooms of a hotel to a consumer.
+     * 
+     * @param hotel {Hotel} The hotel.
+     * @param type {RoomType} The room type.
+     * @param checkIn {int} The check-in date, in epoch days.
+     * @param checkOut {int} The check-out date, in epoch days.
+     * @param maxPrice {double} The max price for the stay.
+     * @param consumer {Consumer<Result>} Receives each room found.
+     */
+    private static void findRooms(Hotel hotel, RoomType type, int checkIn, int checkOut,
+                                  double maxPrice, Consumer<Result> consumer)
+    {
+        String hotelName = hotel.getName();
+
+        for (Room room : hotel.findAvailableRooms(checkIn, checkOut, type))
+        {
+            double price = room.quote(checkIn, checkOut);
+
+            if (price <= maxPrice)
+                consumer.accept(new Result(room, hotelName, price));
+        }
+    }
+
+    /**
+     * Adds a result to a queue ordered from priciest to cheapest, keeping
+     * only the given number of cheapest results.
+     * 
+     * @param queue {PriorityQueue<Result>} The queue.
+     * @param result {Result} The result.
+     * @param limit {int} The max number of results to keep.
+     */
+    private static void offer(PriorityQueue<Result> queue, Result result, int limit)
+    {
+        if (queue.size() < limit)
+            queue.add(result);
+        else if (BY_PRICE.compare(result, queue.peek()) < 0)
+        {
+            queue.poll();
+            queue.add(result);
+        }
+    }
+}
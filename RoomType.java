@@ -0,0 +1,61 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Consists of the different room types and their prices.
+ */
+
+public enum RoomType
+{
+    STANDARD(1.00),
+    DELUXE(1.20),
+    EXECUTIVE(1.35);
+
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private final double multiplier; // The type's price relative to the hotel's base price.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a room type given its price multiplier.
+     * 
+     * @param multiplier {double} The price multiplier.
+     */
+    RoomType(double multiplier)
+    {
+        this.multiplier = multiplier;
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the type's price relative to the hotel's base price.
+     * 
+     * @return {double}
+     */
+    public double getMultiplier()
+    {
+        return this.multiplier;
+    }
+
+    /**
+     * Returns the room type with a given name, such as one read from a
+     * journal or snapshot.
+     * 
+     * Names that are not a room type give a standard room, as they were
+     * priced before room types were checked.
+     * 
+     * @param name {String} The type's name.
+     * @return {RoomType}
+     */
+    public static RoomType fromName(String name)
+    {
+        for (RoomType type : values())
+        {
+            if (type.name().equals(name))
+                return type;
+        }
+        return STANDARD;
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Contains the data being processed by a single user interaction.
+ */
+
+import java.time.LocalDate;
+
+/**
+ * The session class.
+ * 
+ * Every client or window works through its own session, so several
+ * interactions can move through their states at the same time while
+ * sharing the hotels of the heap.
+ */
+public class Session
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private final Heap heap;        // The hotels shared by every session.
+
+    /* 
+     * State information.
+     */
+    private Context state;          // The session's current state.
+    private boolean hadError;       // Determines if there was an input error.
+    private String feedback;        // The most recent feedback by the system.
+
+    /*
+     * Data containers.
+     */
+    private Hotel hotel;             // The hotel being processed.
+    private Room room;               // The room being processed.
+    private Reservation reservation; // The reservation being processed.
+    private String text;             // The text being processed.
+    private int checkIn;             // The check-in date being processed.
+    private int checkOut;            // The check-out date being processed.
+
+    private static final int MAX_DAYS_AHEAD = 3 * 366; // The booking horizon in days.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs a session over the system's hotels.
+     */
+    public Session()
+    {
+        this.heap = Heap.getInstance();
+
+        this.state = Context.MAIN_MENU;
+        this.hadError = false;
+        this.feedback = "";
+    }
+
+    /* --------------------------------- GETTERS -------------------------------- */
+
+    /**
+     * Returns the hotels shared by every session.
+     * 
+     * @return {Heap}
+     */
+    public Heap getHeap()
+    {
+        return this.heap;
+    }
+
+    /**
+     * Returns the feedback.
+     * 
+     * @return {String}
+     */
+    public String getFeedback()
+    {
+        return this.feedback;
+    }
+
+    /**
+     * Returns the current session state.
+     * 
+     * @return {Context}
+     */
+    public Context getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * Returns the hotel being processed.
+     * 
+     * @return {Hotel}
+     */
+    public Hotel getHotel()
+    {
+        return this.hotel;
+    }
+
+    /**
+     * Returns the room being processed.
+     * 
+     * @return {Room}
+     */
+    public Room getRoom()
+    {
+        return this.room;
+    }
+
+    /**
+     * Returns the reservation being processed.
+     * 
+     * @return {Reservation}
+     */
+    public Reservation getReservation()
+    {
+        return this.reservation;
+    }
+
+    /**
+     * Returns the text being processed.
+     * 
+     * @return {String}
+     */
+    public String getText()
+    {
+        return this.text;
+    }
+
+    /**
+     * Returns the check-in date being processed.
+     * 
+     * @return {int}
+     */
+    public int getCheckIn()
+    {
+        return this.checkIn;
+    }
+
+    /**
+     * Returns the check-out date being processed.
+     * 
+     * @return {int}
+     */
+    public int getCheckOut()
+    {
+        return this.checkOut;
+    }
+
+    /**
+     * Returns today's date in epoch days.
+     * 
+     * @return {int}
+     */
+    public static int getToday()
+    {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    /* --------------------------------- SETTERS -------------------------------- */
+
+    /**
+     * Sets the session's state.
+     * 
+     * @param state {Context} The state.
+     */
+    public void setState(Context state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * Sets the session's error state.
+     * 
+     * @param hadError {boolean} The error state.
+     */
+    public void setErrorState(boolean hadError)
+    {
+        this.hadError = hadError;
+    }
+
+    /**
+     * Sets the feedback being processed.
+     * 
+     * @param feedback {String} The feedback.
+     */
+    public void setFeedback(String feedback)
+    {
+        this.feedback = feedback;
+    }
+
+    /**
+     * Sets the hotel being processed given the index.
+     * 
+     * @param index {int} The index.
+     */
+    public void setHotel(int index)
+    {
+        this.hotel = heap.getHotel(index);
+    }
+
+    /**
+     * Sets the hotel being processed given the name.
+     * 
+     * @param name {String} The hotel name.
+     */
+    public void setHotel(String name)
+    {
+        this.hotel = heap.getHotel(name);
+    }
+
+    /**
+     * Sets the hotel being processed given the hotel object.
+     * 
+     * @param hotel {Hotel} The hotel.
+     */
+    public void setHotel(Hotel hotel)
+    {
+        this.hotel = hotel;
+    }
+
+    /**
+     * Sets the room being processed.
+     * 
+     * @param room {Room} The room.
+     */
+    public void setRoom(Room room)
+    {
+        this.room = room;
+    }
+
+    /**
+     * Sets the reservation being processed.
+     * 
+     * @param reservation {Reservation} The reservation.
+     */
+    public void setReservation(Reservation reservation)
+    {
+        this.reservation = reservation;
+    }
+
+    /**
+     * Sets the text being processed.
+     * 
+     * @param text {String} The text.
+     */
+    public void setText(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Sets the check-in date being processed.
+     * 
+     * Dates are epoch days (days since 1970-01-01). Returns true only if the
+     * given check-in date is from today up to the day before the end of the
+     * booking horizon.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @return {boolean}
+     */
+    public boolean setCheckIn(int checkIn)
+    {
+        if (isValidCheckIn(checkIn, getToday()))
+        {
+            this.checkIn = checkIn;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the check-out date being processed.
+     * 
+     * Dates are epoch days (days since 1970-01-01). Returns true only if the
+     * given check-out date is from tomorrow up to the end of the booking
+     * horizon.
+     * 
+     * @param checkOut {int} The check-out date.
+     * @return {boolean}
+     */
+    public boolean setCheckOut(int checkOut)
+    {
+        if (isValidCheckOut(checkOut, getToday()))
+        {
+            this.checkOut = checkOut;
+            return true;
+        }
+        return false;
+    }
+
+    /* -------------------------------- BOOLEANS -------------------------------- */
+
+    /**
+     * Identifies if there was an input error.
+     * 
+     * @return {boolean}
+     */
+    public boolean hadError()
+    {
+        return this.hadError;
+    }
+
+    /**
+     * Checks if a check-in date is from a given day up to the day before the
+     * end of the booking horizon.
+     * 
+     * @param checkIn {int} The check-in date.
+     * @param today {int} The current date.
+     * @return {boolean}
+     */
+    public static boolean isValidCheckIn(int checkIn, int today)
+    {
+        return checkIn >= today && checkIn < today + MAX_DAYS_AHEAD;
+    }
+
+    /**
+     * Checks if a check-out date is from the day after a given day up to the
+     * end of the booking horizon.
+     * 
+     * @param checkOut {int} The check-out date.
+     * @param today {int} The current date.
+     * @return {boolean}
+     */
+    public static boolean isValidCheckOut(int checkOut, int today)
+    {
+        return checkOut > today && checkOut <= today + MAX_DAYS_AHEAD;
+    }
+}
@@ -0,0 +1,494 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Saves and loads the system's hotels as a binary snapshot.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * The snapshot class.
+ * 
+ * A snapshot is laid out as follows, with every number in big-endian order
+ * and every string as its UTF-8 length followed by its bytes:
+ * 
+ *   int MAGIC, int VERSION, int number of hotels, then per hotel:
+ *     string name, double base price, int number of rooms, then per room:
+ *       string name, string type, double base price or NaN if the room
+ *       follows its hotel's price,
+ *       int number of set rates, then per rate: int date, double rate,
+ *       int number of reservations, then per reservation:
+ *         long id, string guest name, int check-in, int check-out,
+ *         double nightly price, double total price, one double rate per night,
+ *         int number of codes, then per code: string code,
+ *       double total earnings, including archived reservations,
+ *     int number of archived reservations, then per reservation:
+ *       long id, string guest name, string room name, int check-in,
+ *       int check-out, double nightly price, double total price,
+ *       int number of codes, then per code: string code.
+ * 
+ * Dates are epoch days. Loading maps the file into memory and reads it in a
+ * single pass.
+ * 
+ * Version 4 has the same layout, but saved every room's base price. Its
+ * rooms priced exactly at their hotel's price for their type are loaded as
+ * following the hotel.
+ */
+public class Snapshot
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int MAGIC = 0x48525356;  // Marks a snapshot file ("HRSV").
+    private static final int VERSION = 5;         // The snapshot format version.
+    private static final int OLDEST_VERSION = 4;  // The oldest version still read.
+
+    private static final int INITIAL_SIZE = 1 << 16; // The initial buffer size.
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Prevents the snapshot class from being instantiated.
+     */
+    private Snapshot()
+    {
+    }
+
+    /* ---------------------------------- SAVE ---------------------------------- */
+
+    /**
+     * Saves every hotel of the system to a file.
+     * 
+     * The snapshot is written to a temporary file first and then moved over
+     * the given file, so a crash never leaves a half-written snapshot behind.
+     * 
+     * Each hotel is written on its worker while holding the locks of all of
+     * its rooms, so bookings may go on meanwhile, whether made through the
+     * hotel's worker or not, and every hotel is saved as it was at one point
+     * in time. To save the whole system at one point in time, such as
+     * before emptying the journal, see Journal.checkpoint.
+     * 
+     * @param path {Path} The snapshot file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void save(Path path) throws IOException
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+        ArrayList<Hotel> hotels = new ArrayList<>(Heap.getInstance().getHotels());
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_SIZE);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(hotels.size());
+
+        for (Hotel hotel : hotels)
+        {
+            ByteBuffer written = buffer;
+
+            buffer = workers.read(hotel, locked -> putHotel(written, locked));
+        }
+        buffer.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes a hotel and its rooms.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param hotel {Hotel} The hotel.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putHotel(ByteBuffer buffer, Hotel hotel)
+    {
+        buffer = putString(buffer, hotel.getName());
+        buffer = ensureCapacity(buffer, 12);
+        buffer.putDouble(hotel.getBasePrice());
+        buffer.putInt(hotel.getNumOfRooms());
+
+        for (int i = 0; i < hotel.getNumOfRooms(); i++)
+        {
+            buffer = putRoom(buffer, hotel.getRoom(i));
+        }
+        return putHistory(buffer, hotel.getHistory());
+    }
+
+    /**
+     * Writes a room, its set rates, and its reservations.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param room {Room} The room.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putRoom(ByteBuffer buffer, Room room)
+    {
+        buffer = putString(buffer, room.getName());
+        buffer = putString(buffer, room.type().name());
+
+        // Only the dates whose rate differs from the default are saved.
+        int[] dates = room.getRatedDates();
+
+        buffer = ensureCapacity(buffer, 16 + dates.length * 12);
+        buffer.putDouble(room.hasOwnPrice() ? room.getBasePrice() : Double.NaN);
+        buffer.putInt(dates.length);
+
+        for (int date : dates)
+        {
+            buffer.putInt(date);
+            buffer.putDouble(room.getRate(date));
+        }
+        buffer.putInt(room.getNumOfReservations());
+
+        for (int i = 0; i < room.getNumOfReservations(); i++)
+        {
+            buffer = putReservation(buffer, room.getReservation(i));
+        }
+        buffer = ensureCapacity(buffer, 8);
+        buffer.putDouble(room.getTotalPrice());
+        return buffer;
+    }
+
+    /**
+     * Writes a reservation.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param reservation {Reservation} The reservation.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putReservation(ByteBuffer buffer, Reservation reservation)
+    {
+        int checkIn = reservation.getCheckIn();
+        int checkOut = reservation.getCheckOut();
+
+        buffer = ensureCapacity(buffer, 8);
+        buffer.putLong(reservation.getId());
+        buffer = putString(buffer, reservation.getGuestName());
+        buffer = ensureCapacity(buffer, 24 + (checkOut - checkIn) * 8);
+        buffer.putInt(checkIn);
+        buffer.putInt(checkOut);
+        buffer.putDouble(reservation.getNightlyPrice());
+        buffer.putDouble(reservation.getTotalPrice());
+
+        for (int night = checkIn; night < checkOut; night++)
+        {
+            buffer.putDouble(reservation.getRate(night));
+        }
+        return putCodes(buffer, reservation.getCodes());
+    }
+
+    /**
+     * Writes the archived reservations of a hotel.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param history {ReservationStore} The archived reservations.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putHistory(ByteBuffer buffer, ReservationStore history)
+    {
+        int numOfReservations = history.getNumOfReservations();
+
+        buffer = ensureCapacity(buffer, 4);
+        buffer.putInt(numOfReservations);
+
+        for (int row = 0; row < numOfReservations; row++)
+        {
+            buffer = ensureCapacity(buffer, 8);
+            buffer.putLong(history.getId(row));
+            buffer = putString(buffer, history.getGuestName(row));
+            buffer = putString(buffer, history.getRoomName(row));
+            buffer = ensureCapacity(buffer, 24);
+            buffer.putInt(history.getCheckIn(row));
+            buffer.putInt(history.getCheckOut(row));
+            buffer.putDouble(history.getNightlyPrice(row));
+            buffer.putDouble(history.getTotalPrice(row));
+            buffer = putCodes(buffer, history.getCodes(row));
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the applied codes of a reservation by name.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param codes {long} The ids of the codes applied.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putCodes(ByteBuffer buffer, long codes)
+    {
+        buffer = ensureCapacity(buffer, 4);
+        buffer.putInt(Long.bitCount(codes));
+
+        for (long remaining = codes; remaining != 0; remaining &= remaining - 1)
+        {
+            buffer = putString(buffer, Discount.getDiscount(Long.numberOfTrailingZeros(remaining))
+                                               .getCode());
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its bytes.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param text {String} The string.
+     * @return {ByteBuffer} The buffer, grown if needed.
+     */
+    private static ByteBuffer putString(ByteBuffer buffer, String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        buffer = ensureCapacity(buffer, 4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer with room for the given number of bytes, doubling the
+     * given buffer if needed.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param bytes {int} The number of bytes to be written.
+     * @return {ByteBuffer}
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int bytes)
+    {
+        if (buffer.remaining() >= bytes)
+            return buffer;
+
+        int capacity = buffer.capacity();
+
+        while (capacity - buffer.position() < bytes)
+        {
+            capacity *= 2;
+        }
+
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /* ---------------------------------- LOAD ---------------------------------- */
+
+    /**
+     * Replaces the hotels of the system with those saved in a file.
+     * 
+     * @param path {Path} The snapshot file.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public static void load(Path path) throws IOException
+    {
+        ArrayList<Hotel> hotels = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                  0, channel.size());
+
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC)
+                throw new IOException("Not a supported snapshot: " + path);
+
+            int version = buffer.getInt();
+
+            if (version < OLDEST_VERSION || version > VERSION)
+                throw new IOException("Not a supported snapshot: " + path);
+
+            int numOfHotels = buffer.getInt();
+
+            for (int i = 0; i < numOfHotels; i++)
+            {
+                hotels.add(getHotel(buffer, version));
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // A truncated or inconsistent file surfaces as a buffer error.
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+
+        if (!Heap.getInstance().setHotels(hotels))
+            throw new IOException("Duplicate hotel names in snapshot: " + path);
+    }
+
+    /**
+     * Reads a hotel and its rooms.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param version {int} The snapshot's format version.
+     * @return {Hotel}
+     * @throws IOException If the hotel's rooms do not match the snapshot.
+     */
+    private static Hotel getHotel(ByteBuffer buffer, int version) throws IOException
+    {
+        String name = getString(buffer);
+        double basePrice = buffer.getDouble();
+        int numOfRooms = buffer.getInt();
+
+        Hotel hotel = new Hotel(name, basePrice, numOfRooms);
+
+        for (int i = 0; i < numOfRooms; i++)
+        {
+            getRoom(buffer, hotel, version);
+        }
+        getHistory(buffer, hotel.getHistory());
+        return hotel;
+    }
+
+    /**
+     * Reads a room into a hotel, along with its rates and reservations.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param hotel {Hotel} The room's hotel.
+     * @param version {int} The snapshot's format version.
+     * @throws IOException If the room does not match the snapshot.
+     */
+    private static void getRoom(ByteBuffer buffer, Hotel hotel, int version) throws IOException
+    {
+        String name = getString(buffer);
+        RoomType type = RoomType.fromName(getString(buffer));
+
+        // Rooms are named by their order in the hotel, so they are re-added in order.
+        if (!hotel.addRooms(type, 1))
+            throw new IOException("Too many rooms in hotel " + hotel.getName());
+
+        Room room = hotel.getRoom(hotel.getNumOfRooms() - 1);
+
+        if (!room.getName().equals(name))
+            throw new IOException("Unexpected room " + name + " in hotel " + hotel.getName());
+
+        double basePrice = buffer.getDouble();
+
+        // Version 4 cannot tell a room following its hotel from one priced the same.
+        boolean isFollowing = Double.isNaN(basePrice) ||
+                              (version == 4 && basePrice == hotel.getPrice(type));
+
+        if (!isFollowing)
+            room.setBasePrice(basePrice);
+
+        int numOfRates = buffer.getInt();
+
+        for (int i = 0; i < numOfRates; i++)
+        {
+            room.setDateRate(buffer.getInt(), buffer.getDouble());
+        }
+
+        int numOfReservations = buffer.getInt();
+
+        for (int i = 0; i < numOfReservations; i++)
+        {
+            room.addReservation(getReservation(buffer, room));
+        }
+
+        // Adds back the earnings of the room's archived reservations.
+        room.updateTotalPrice(buffer.getDouble() - room.getTotalPrice());
+    }
+
+    /**
+     * Reads a reservation of a room.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param room {Room} The reservation's room.
+     * @return {Reservation}
+     */
+    private static Reservation getReservation(ByteBuffer buffer, Room room)
+    {
+        long id = buffer.getLong();
+        String guestName = getString(buffer);
+        int checkIn = buffer.getInt();
+        int checkOut = buffer.getInt();
+        double nightlyPrice = buffer.getDouble();
+        double totalPrice = buffer.getDouble();
+
+        double[] rates = new double[Math.max(checkOut - checkIn, 0)];
+
+        for (int i = 0; i < rates.length; i++)
+        {
+            rates[i] = buffer.getDouble();
+        }
+
+        long codes = getCodes(buffer);
+
+        return new Reservation(id, guestName, room, checkIn, checkOut,
+                               nightlyPrice, totalPrice, rates, codes);
+    }
+
+    /**
+     * Reads the archived reservations of a hotel.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @param history {ReservationStore} The hotel's archived reservations.
+     */
+    private static void getHistory(ByteBuffer buffer, ReservationStore history)
+    {
+        int numOfReservations = buffer.getInt();
+
+        for (int i = 0; i < numOfReservations; i++)
+        {
+            long id = buffer.getLong();
+            String guestName = getString(buffer);
+            String roomName = getString(buffer);
+
+            history.addReservation(id, guestName, roomName, buffer.getInt(), buffer.getInt(),
+                                   buffer.getDouble(), buffer.getDouble(), getCodes(buffer));
+        }
+    }
+
+    /**
+     * Reads the applied codes of a reservation.
+     * 
+     * Codes are saved by name, since ids depend on the registration order.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @return {long} The ids of the codes applied.
+     */
+    private static long getCodes(ByteBuffer buffer)
+    {
+        int numOfCodes = buffer.getInt();
+        long codes = 0L;
+
+        for (int i = 0; i < numOfCodes; i++)
+        {
+            int id = Discount.getId(getString(buffer));
+
+            if (id >= 0)
+                codes |= 1L << id;
+        }
+        return codes;
+    }
+
+    /**
+     * Reads a string saved as its UTF-8 length followed by its bytes.
+     * 
+     * @param buffer {ByteBuffer} The buffer.
+     * @return {String}
+     */
+    private static String getString(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getInt()];
+
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Builds the fixtures of the benchmarks.
+ */
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import benchmarks.Workload;
+import benchmarks.WorkloadFactory;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The workloads class.
+ * 
+ * Lives in the default package so it can use the system's classes; see
+ * benchmarks.WorkloadFactory.
+ */
+public class Workloads implements WorkloadFactory
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NUM_OF_QUERIES = 64;  // The queries cycled through, a power of 2.
+    private static final int FIRST_NIGHT = (int) LocalDate.of(2030, 1, 1).toEpochDay();
+
+    /* ------------------------------- CONSTRUCTOR ------------------------------ */
+
+    /**
+     * Constructs the workloads, as the registered WorkloadFactory.
+     */
+    public Workloads()
+    {
+    }
+
+    /* -------------------------------- WORKLOADS ------------------------------- */
+
+    /**
+     * Checks stays against a room with a given number of reservations.
+     * 
+     * The room is booked two nights out of every three, and the stays checked
+     * are spread over its reservations, about half of them free.
+     * 
+     * @param numOfReservations {int} The room's number of reservations.
+     * @return {Workload}
+     */
+    @Override
+    public Workload areDatesAvailable(int numOfReservations)
+    {
+        Room room = newHotel("Availability", 1).getRoom(0);
+
+        for (int i = 0; i < numOfReservations; i++)
+        {
+            room.addReservation("Guest", FIRST_NIGHT + i * 3, FIRST_NIGHT + i * 3 + 2);
+        }
+
+        int[] checkIns = new int[NUM_OF_QUERIES];
+        int span = Math.max(numOfReservations, 1) * 3;
+
+        for (int i = 0; i < NUM_OF_QUERIES; i++)
+        {
+            checkIns[i] = FIRST_NIGHT + (int) ((long) i * span / NUM_OF_QUERIES);
+        }
+
+        return new Workload()
+        {
+            private int next; // The next stay checked.
+
+            @Override
+            public void run(Blackhole blackhole)
+            {
+                int checkIn = checkIns[next];
+
+                blackhole.consume(room.areDatesAvailable(checkIn, checkIn + 1));
+                next = (next + 1) & (NUM_OF_QUERIES - 1);
+            }
+        };
+    }
+
+    /**
+     * Makes reservations of a given number of nights on a room whose rates
+     * change every other night.
+     * 
+     * The reservations are not added to the room.
+     * 
+     * @param numOfNights {int} The length of each stay.
+     * @return {Workload}
+     */
+    @Override
+    public Workload newReservation(int numOfNights)
+    {
+        Room room = newHotel("Construction", 1).getRoom(0);
+
+        for (int night = FIRST_NIGHT; night < FIRST_NIGHT + 60; night += 2)
+        {
+            room.setDateRate(night, 1.25);
+        }
+
+        return blackhole -> blackhole.consume(new Reservation("Guest", room, FIRST_NIGHT,
+                                                              FIRST_NIGHT + numOfNights));
+    }
+
+    /**
+     * Applies a discount code to a new reservation each time.
+     * 
+     * The reservations are made before each batch of runs, since a code
+     * applies only once. Each stay is seven nights long and includes the
+     * 15th, so it may use every code.
+     * 
+     * @param code {String} The discount code.
+     * @return {Workload}
+     */
+    @Override
+    public Workload setDiscount(String code)
+    {
+        Room room = newHotel("Discounting", 1).getRoom(0);
+        int checkIn = (int) LocalDate.of(2030, 1, 12).toEpochDay();
+
+        return new Workload()
+        {
+            private Reservation[] reservations; // The reservations to apply the code to.
+            private int next;                   // The next reservation.
+
+            @Override
+            public void prepare(int numOfRuns)
+            {
+                reservations = new Reservation[numOfRuns];
+                next = 0;
+
+                for (int i = 0; i < numOfRuns; i++)
+                {
+                    reservations[i] = new Reservation("Guest", room, checkIn, checkIn + 7);
+                }
+            }
+
+            @Override
+            public void run(Blackhole blackhole)
+            {
+                blackhole.consume(reservations[next++].setDiscount(code));
+            }
+        };
+    }
+
+    /**
+     * Reads the number of rooms without reservations of a hotel of 50 rooms,
+     * half of them booked.
+     * 
+     * @return {Workload}
+     */
+    @Override
+    public Workload getNumOfAvailRooms()
+    {
+        Hotel hotel = newHotel("Available Rooms", 50);
+
+        for (int i = 0; i < 50; i += 2)
+        {
+            hotel.getRoom(i).addReservation("Guest", FIRST_NIGHT, FIRST_NIGHT + 3);
+        }
+        return blackhole -> blackhole.consume(hotel.getNumOfAvailRooms());
+    }
+
+    /**
+     * Reads the earnings of a room with 100 reservations.
+     * 
+     * @return {Workload}
+     */
+    @Override
+    public Workload getTotalPrice()
+    {
+        Room room = newHotel("Earnings", 1).getRoom(0);
+
+        for (int i = 0; i < 100; i++)
+        {
+            room.addReservation("Guest", FIRST_NIGHT + i * 3, FIRST_NIGHT + i * 3 + 2);
+        }
+        return blackhole -> blackhole.consume(room.getTotalPrice());
+    }
+
+    /**
+     * Looks up hotels by name among a given number of hotels.
+     * 
+     * @param numOfHotels {int} The number of hotels.
+     * @return {Workload}
+     */
+    @Override
+    public Workload getHotel(int numOfHotels)
+    {
+        ArrayList<Hotel> hotels = new ArrayList<>();
+
+        for (int i = 0; i < numOfHotels; i++)
+        {
+            hotels.add(new Hotel("Hotel " + i, 1299.0, 1));
+        }
+        Heap.getInstance().setHotels(hotels);
+
+        // Spreads the names looked up over the hotels.
+        String[] names = new String[NUM_OF_QUERIES];
+
+        for (int i = 0; i < NUM_OF_QUERIES; i++)
+        {
+            names[i] = "Hotel " + (i * 7919 % numOfHotels);
+        }
+
+        return new Workload()
+        {
+            private int next; // The next name looked up.
+
+            @Override
+            public void run(Blackhole blackhole)
+            {
+                blackhole.consume(Heap.getInstance().getHotel(names[next]));
+                next = (next + 1) & (NUM_OF_QUERIES - 1);
+            }
+        };
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new hotel, outside the system, with a given number of
+     * standard rooms.
+     * 
+     * @param name {String} The hotel name.
+     * @param numOfRooms {int} The number of rooms.
+     * @return {Hotel}
+     */
+    private static Hotel newHotel(String name, int numOfRooms)
+    {
+        Hotel hotel = new Hotel(name, 1299.0, numOfRooms);
+
+        hotel.addRooms(RoomType.STANDARD, numOfRooms);
+        return hotel;
+    }
+}
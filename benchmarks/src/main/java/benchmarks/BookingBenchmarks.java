@@ -0,0 +1,267 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Benchmarks the booking hot paths.
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The booking benchmarks class.
+ * 
+ * Each benchmark runs one operation on a fixture built once per trial, or
+ * once per iteration for operations that use their fixture up; see
+ * WorkloadFactory for the fixtures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmarks
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int DISCOUNT_BATCH_SIZE = 1000; // The codes applied per iteration.
+
+    /* --------------------------------- STATES --------------------------------- */
+
+    /**
+     * A room with a given number of reservations.
+     */
+    @State(Scope.Thread)
+    public static class Availability
+    {
+        @Param({"0", "10", "100", "1000"})
+        public int numOfReservations;    // The room's number of reservations.
+
+        private Workload workload;       // The availability checks.
+
+        /**
+         * Builds the room.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().areDatesAvailable(numOfReservations);
+        }
+    }
+
+    /**
+     * A room with rates set, to be reserved for a given number of nights.
+     */
+    @State(Scope.Thread)
+    public static class Construction
+    {
+        @Param({"1", "7", "30"})
+        public int numOfNights;          // The length of each stay.
+
+        private Workload workload;       // The reservations made.
+
+        /**
+         * Builds the room.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().newReservation(numOfNights);
+        }
+    }
+
+    /**
+     * New reservations that may use every discount code.
+     */
+    @State(Scope.Thread)
+    public static class Discounting
+    {
+        /**
+         * The discount codes.
+         */
+        public enum Code
+        {
+            I_WORK_HERE,
+            STAY4_GET1,
+            PAYDAY
+        }
+
+        @Param
+        public Code code;                // The code applied.
+
+        private Workload workload;       // The codes applied.
+
+        /**
+         * Builds the room.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().setDiscount(code.name());
+        }
+
+        /**
+         * Makes the reservations of the next batch, since a code applies
+         * only once.
+         */
+        @Setup(Level.Iteration)
+        public void prepare()
+        {
+            workload.prepare(DISCOUNT_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * A hotel with some of its rooms booked.
+     */
+    @State(Scope.Thread)
+    public static class AvailableRooms
+    {
+        private Workload workload;       // The counts read.
+
+        /**
+         * Builds the hotel.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().getNumOfAvailRooms();
+        }
+    }
+
+    /**
+     * A room with reservations.
+     */
+    @State(Scope.Thread)
+    public static class Earnings
+    {
+        private Workload workload;       // The earnings read.
+
+        /**
+         * Builds the room.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().getTotalPrice();
+        }
+    }
+
+    /**
+     * The system with a given number of hotels.
+     */
+    @State(Scope.Thread)
+    public static class Lookup
+    {
+        @Param({"1", "10", "100", "1000"})
+        public int numOfHotels;          // The number of hotels.
+
+        private Workload workload;       // The hotels looked up.
+
+        /**
+         * Builds the hotels.
+         */
+        @Setup
+        public void setUp()
+        {
+            workload = WorkloadFactory.getInstance().getHotel(numOfHotels);
+        }
+    }
+
+    /* ------------------------------- BENCHMARKS ------------------------------- */
+
+    /**
+     * Room.areDatesAvailable by the room's number of reservations.
+     * 
+     * @param state {Availability} The room.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    public void areDatesAvailable(Availability state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+
+    /**
+     * The Reservation constructor, which copies the rates and prices the stay.
+     * 
+     * @param state {Construction} The room.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    public void newReservation(Construction state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+
+    /**
+     * Reservation.setDiscount for each code.
+     * 
+     * Each iteration applies the code to one batch of reservations made
+     * beforehand, and is timed as a whole. The score is in microseconds per
+     * batch of 1000, which reads as nanoseconds per code.
+     * 
+     * @param state {Discounting} The reservations.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20, batchSize = DISCOUNT_BATCH_SIZE)
+    @Measurement(iterations = 50, batchSize = DISCOUNT_BATCH_SIZE)
+    public void setDiscount(Discounting state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+
+    /**
+     * Hotel.getNumOfAvailRooms.
+     * 
+     * @param state {AvailableRooms} The hotel.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    public void getNumOfAvailRooms(AvailableRooms state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+
+    /**
+     * Room.getTotalPrice.
+     * 
+     * @param state {Earnings} The room.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    public void getTotalPrice(Earnings state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+
+    /**
+     * Heap.getHotel(String) by the number of hotels.
+     * 
+     * @param state {Lookup} The hotels.
+     * @param blackhole {Blackhole} Consumes the results.
+     */
+    @Benchmark
+    public void getHotel(Lookup state, Blackhole blackhole)
+    {
+        state.workload.run(blackhole);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Runs the benchmarks.
+ */
+
+package benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * The benchmark launcher class.
+ * 
+ * Takes the same options as JMH, but writes the results as JSON unless
+ * another result format is given, so results of different versions can be
+ * compared.
+ */
+public class Main
+{
+    /**
+     * Prevents the launcher class from being instantiated.
+     */
+    private Main()
+    {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * 
+     * @param args {String[]} The JMH options.
+     * @throws Exception If the benchmarks cannot be run.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if (!Arrays.asList(args).contains("-rf"))
+        {
+            String[] withFormat = new String[args.length + 2];
+
+            withFormat[0] = "-rf";
+            withFormat[1] = "json";
+            System.arraycopy(args, 0, withFormat, 2, args.length);
+            args = withFormat;
+        }
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Runs one operation of the system on a prepared fixture.
+ */
+
+package benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The workload interface.
+ * 
+ * Workloads are built by a WorkloadFactory.
+ */
+public interface Workload
+{
+    /**
+     * Prepares the fixtures of a given number of runs, for operations that
+     * use them up.
+     * 
+     * @param numOfRuns {int} The number of runs.
+     */
+    default void prepare(int numOfRuns)
+    {
+    }
+
+    /**
+     * Runs the operation once.
+     * 
+     * @param blackhole {Blackhole} Consumes the operation's result.
+     */
+    void run(Blackhole blackhole);
+}
@@ -0,0 +1,82 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Builds the fixtures of the benchmarks.
+ */
+
+package benchmarks;
+
+import java.util.ServiceLoader;
+
+/**
+ * The workload factory interface.
+ * 
+ * JMH only accepts benchmarks in a named package, and a named package
+ * cannot refer to the system's classes in the default package. Fixtures are
+ * therefore built by the Workloads class, which is in the default package,
+ * implements this interface, and is registered as its service in
+ * META-INF/services. Benchmarks call its methods directly, so each sees one
+ * kind of workload and the call is inlined.
+ */
+public interface WorkloadFactory
+{
+    /**
+     * Returns the registered workload factory.
+     * 
+     * @return {WorkloadFactory}
+     */
+    static WorkloadFactory getInstance()
+    {
+        return ServiceLoader.load(WorkloadFactory.class).findFirst().orElseThrow(() ->
+            new IllegalStateException("No workload factory is registered"));
+    }
+
+    /**
+     * Returns stays checked against a room with a given number of
+     * reservations.
+     * 
+     * @param numOfReservations {int} The room's number of reservations.
+     * @return {Workload}
+     */
+    Workload areDatesAvailable(int numOfReservations);
+
+    /**
+     * Returns reservations of a given number of nights made on a room with
+     * rates set.
+     * 
+     * @param numOfNights {int} The length of each stay.
+     * @return {Workload}
+     */
+    Workload newReservation(int numOfNights);
+
+    /**
+     * Returns a discount code applied to prepared reservations, one per run.
+     * 
+     * @param code {String} The discount code.
+     * @return {Workload}
+     */
+    Workload setDiscount(String code);
+
+    /**
+     * Returns the number of rooms without reservations read from a hotel.
+     * 
+     * @return {Workload}
+     */
+    Workload getNumOfAvailRooms();
+
+    /**
+     * Returns the earnings read from a room.
+     * 
+     * @return {Workload}
+     */
+    Workload getTotalPrice();
+
+    /**
+     * Returns hotels looked up by name among a given number of hotels.
+     * 
+     * @param numOfHotels {int} The number of hotels.
+     * @return {Workload}
+     */
+    Workload getHotel(int numOfHotels);
+}
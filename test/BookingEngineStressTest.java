@@ -0,0 +1,170 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Stress tests the booking engine with many threads booking the same rooms.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The booking engine stress test class.
+ * 
+ * Threads book, book in groups, and cancel random stays over a few rooms,
+ * so most attempts collide. Afterwards, no two stays of a room may share a
+ * night, and the rooms must hold exactly the bookings the threads were told
+ * succeeded and did not cancel.
+ */
+public class BookingEngineStressTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NUM_OF_THREADS = 8;        // The threads booking at once.
+    private static final int NUM_OF_ATTEMPTS = 20000;   // The attempts of each thread.
+    private static final int FIRST_NIGHT = 20000;       // The first night booked.
+    private static final int NUM_OF_NIGHTS = 365;       // The nights booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Books from many threads and checks that no room is double-booked.
+     * 
+     * @throws Exception If a thread fails.
+     */
+    @Test
+    public void neverDoubleBooks() throws Exception
+    {
+        BookingEngine engine = BookingEngine.getInstance();
+        ArrayList<Room> rooms = new ArrayList<>();
+
+        // Two hotels, so rooms of different hotels book in parallel too.
+        for (int h = 0; h < 2; h++)
+        {
+            Hotel hotel = new Hotel("Stress " + h, 1299.0, 6);
+
+            hotel.addRooms(RoomType.STANDARD, 6);
+
+            for (int i = 0; i < hotel.getNumOfRooms(); i++)
+            {
+                rooms.add(hotel.getRoom(i));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(NUM_OF_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Future<ArrayList<Reservation>>> results = new ArrayList<>();
+
+        for (int t = 0; t < NUM_OF_THREADS; t++)
+        {
+            Random random = new Random(t);
+
+            results.add(pool.submit(() ->
+            {
+                ArrayList<Reservation> held = new ArrayList<>();
+
+                start.await();
+
+                for (int i = 0; i < NUM_OF_ATTEMPTS; i++)
+                {
+                    int checkIn = FIRST_NIGHT + random.nextInt(NUM_OF_NIGHTS);
+                    int checkOut = checkIn + 1 + random.nextInt(7);
+                    int choice = random.nextInt(10);
+
+                    if (choice < 6)
+                    {
+                        Reservation reservation = engine.reserve(rooms.get(random.nextInt(rooms.size())),
+                                                                 "Guest", checkIn, checkOut);
+
+                        if (reservation != null)
+                            held.add(reservation);
+                    }
+                    else if (choice < 8)
+                    {
+                        // Picks distinct rooms, possibly of both hotels.
+                        ArrayList<Room> group = new ArrayList<>();
+
+                        while (group.size() < 3)
+                        {
+                            Room room = rooms.get(random.nextInt(rooms.size()));
+
+                            if (!group.contains(room))
+                                group.add(room);
+                        }
+
+                        ArrayList<Reservation> booked = engine.reserveGroup(group, "Group",
+                                                                            checkIn, checkOut);
+
+                        if (booked != null)
+                            held.addAll(booked);
+                    }
+                    else if (!held.isEmpty())
+                    {
+                        assertTrue(engine.cancel(held.remove(random.nextInt(held.size()))));
+                    }
+                }
+                return held;
+            }));
+        }
+        start.countDown();
+
+        int numOfHeld = 0;
+
+        for (Future<ArrayList<Reservation>> result : results)
+        {
+            numOfHeld += result.get().size();
+        }
+        pool.shutdown();
+
+        int numOfBooked = 0;
+
+        for (Room room : rooms)
+        {
+            numOfBooked += room.getNumOfReservations();
+            assertNoOverlaps(room);
+        }
+        assertEquals(numOfHeld, numOfBooked);
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Checks that no two stays of a room share a night, and that the room's
+     * calendar agrees with its stays.
+     * 
+     * @param room {Room} The room.
+     */
+    private static void assertNoOverlaps(Room room)
+    {
+        long[] stays = new long[room.getNumOfReservations()];
+
+        for (int i = 0; i < stays.length; i++)
+        {
+            Reservation reservation = room.getReservation(i);
+
+            stays[i] = ((long) reservation.getCheckIn() << 32) | reservation.getCheckOut();
+            assertFalse(room.areDatesAvailable(reservation.getCheckIn(), reservation.getCheckOut()));
+        }
+        Arrays.sort(stays);
+
+        for (int i = 1; i < stays.length; i++)
+        {
+            int previousCheckOut = (int) stays[i - 1];
+            int checkIn = (int) (stays[i] >> 32);
+
+            assertTrue(checkIn >= previousCheckOut,
+                       room.getName() + " is double-booked on " + checkIn);
+        }
+    }
+}
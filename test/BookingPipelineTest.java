@@ -0,0 +1,91 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests booking rooms through the pipeline.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The booking pipeline test class.
+ */
+public class BookingPipelineTest
+{
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that a discount code is applied in the same change as its
+     * booking, so the hotel's view shows the discounted price as soon as the
+     * result completes.
+     */
+    @Test
+    public void discountsOnTheWorker()
+    {
+        Heap.getInstance().addHotel("Pipeline Discount", 1000.0, 1);
+        HotelWorkers.getInstance().addRooms("Pipeline Discount", RoomType.STANDARD, 2).join();
+
+        int today = Session.getToday();
+        Reservation reservation = BookingPipeline.getInstance()
+            .reserve("Guest", "Pipeline Discount", "A-1", null, today + 1, today + 3,
+                     "I_WORK_HERE")
+            .join();
+
+        assertNotNull(reservation);
+        assertEquals(1L << Discount.getId("I_WORK_HERE"), reservation.getCodes());
+        assertEquals(2000.0 * 0.90, reservation.getTotalPrice(), 1e-9);
+        assertEquals(reservation.getTotalPrice(),
+                     HotelWorkers.getInstance().getView("Pipeline Discount").getTotalPrice(),
+                     1e-9);
+    }
+
+    /**
+     * Checks that a burst of requests books each room once, leaves unknown
+     * codes unapplied, and refuses invalid dates and missing hotels.
+     */
+    @Test
+    public void completesEveryRequest()
+    {
+        Heap.getInstance().addHotel("Pipeline Burst", 1000.0, 1);
+        HotelWorkers.getInstance().addRooms("Pipeline Burst", RoomType.STANDARD, 4).join();
+
+        BookingPipeline pipeline = BookingPipeline.getInstance();
+        int today = Session.getToday();
+        ArrayList<CompletableFuture<Reservation>> results = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+        {
+            results.add(pipeline.reserve("Guest " + i, "Pipeline Burst", null,
+                                         RoomType.STANDARD, today + 1, today + 2, "UNKNOWN"));
+        }
+
+        int numBooked = 0;
+
+        for (CompletableFuture<Reservation> result : results)
+        {
+            Reservation reservation = result.join();
+
+            if (reservation != null)
+            {
+                assertEquals(0L, reservation.getCodes());
+                assertEquals(1000.0, reservation.getTotalPrice(), 1e-9);
+                numBooked++;
+            }
+        }
+
+        assertEquals(4, numBooked);
+        assertEquals(0, HotelWorkers.getInstance().getView("Pipeline Burst")
+                                    .findAvailableRooms(today + 1, today + 2, null).size());
+        assertNull(pipeline.reserve("Guest", "Pipeline Burst", null, null,
+                                    today + 2, today + 1, null).join());
+        assertNull(pipeline.reserve("Guest", "Pipeline Missing", null, null,
+                                    today + 1, today + 2, null).join());
+    }
+}
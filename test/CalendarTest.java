@@ -0,0 +1,153 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests the sparse calendars of booked nights and nightly rates.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The calendar test class.
+ * 
+ * Checks Occupancy and RateTable against plain arrays of every night, over
+ * a span crossing many of their segments.
+ */
+public class CalendarTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int FIRST_NIGHT = 20000;  // The first night of the span.
+    private static final int NUM_OF_NIGHTS = 2000; // The nights of the span.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Books and frees random stays, checking random stays against an array
+     * of booked nights.
+     */
+    @Test
+    public void matchesBookedNights()
+    {
+        Random random = new Random(1);
+        Occupancy occupancy = new Occupancy();
+        boolean[] isBooked = new boolean[NUM_OF_NIGHTS];
+
+        for (int i = 0; i < 5000; i++)
+        {
+            int from = random.nextInt(NUM_OF_NIGHTS);
+            int to = Math.min(NUM_OF_NIGHTS, from + 1 + random.nextInt(400));
+            boolean book = random.nextInt(3) == 0;
+
+            occupancy.setNights(FIRST_NIGHT + from, FIRST_NIGHT + to, book);
+            Arrays.fill(isBooked, from, to, book);
+
+            int checkIn = random.nextInt(NUM_OF_NIGHTS);
+            int checkOut = Math.min(NUM_OF_NIGHTS, checkIn + 1 + random.nextInt(300));
+            boolean isFree = true;
+
+            for (int night = checkIn; night < checkOut; night++)
+            {
+                isFree &= !isBooked[night];
+            }
+            assertEquals(isFree, occupancy.areNightsFree(FIRST_NIGHT + checkIn,
+                                                         FIRST_NIGHT + checkOut));
+        }
+
+        occupancy.setNights(FIRST_NIGHT, FIRST_NIGHT + NUM_OF_NIGHTS, false);
+
+        assertTrue(occupancy.isEmpty());
+    }
+
+    /**
+     * Sets random rates, one night or a range at a time, checking the sums of
+     * random stays and the dates repriced against an array of rates.
+     */
+    @Test
+    public void matchesNightlyRates()
+    {
+        Random random = new Random(2);
+        RateTable table = new RateTable();
+        double[] rates = new double[NUM_OF_NIGHTS];
+
+        Arrays.fill(rates, 1.0);
+
+        for (int i = 0; i < 3000; i++)
+        {
+            int from = random.nextInt(NUM_OF_NIGHTS);
+            double rate = random.nextInt(3) == 0 ? 1.0 : 0.5 + random.nextInt(16) / 10.0;
+
+            if (random.nextBoolean())
+            {
+                table.setRate(FIRST_NIGHT + from, rate);
+                rates[from] = rate;
+            }
+            else
+            {
+                int to = Math.min(NUM_OF_NIGHTS, from + 1 + random.nextInt(400));
+
+                table.setRates(FIRST_NIGHT + from, FIRST_NIGHT + to, rate);
+                Arrays.fill(rates, from, to, rate);
+            }
+
+            int checkIn = random.nextInt(NUM_OF_NIGHTS);
+            int checkOut = Math.min(NUM_OF_NIGHTS, checkIn + 1 + random.nextInt(300));
+            double sum = 0;
+
+            for (int night = checkIn; night < checkOut; night++)
+            {
+                sum += rates[night];
+            }
+            assertEquals(sum, table.getSum(FIRST_NIGHT + checkIn, FIRST_NIGHT + checkOut), 1e-6);
+            assertEquals(rates[checkIn], table.getRate(FIRST_NIGHT + checkIn));
+        }
+
+        int[] dates = table.getDates();
+        int num = 0;
+
+        for (int night = 0; night < NUM_OF_NIGHTS; night++)
+        {
+            if (rates[night] != 1.0)
+                assertEquals(FIRST_NIGHT + night, dates[num++]);
+        }
+        assertEquals(num, dates.length);
+
+        table.setRates(FIRST_NIGHT, FIRST_NIGHT + NUM_OF_NIGHTS, 1.0);
+
+        assertArrayEquals(new int[0], table.getDates());
+    }
+
+    /**
+     * Checks that a room books and prices stays years apart, and that a
+     * hotel holds up to 500 rooms.
+     */
+    @Test
+    public void spansYearsAndRooms()
+    {
+        Hotel hotel = new Hotel("Test", 1000.0, 1);
+
+        assertTrue(hotel.addRooms(RoomType.STANDARD, 500));
+        assertFalse(hotel.addRooms(RoomType.STANDARD, 1));
+
+        Room room = hotel.getRoom(499);
+
+        assertFalse(room.setDateRate(FIRST_NIGHT + 1000, 2.0));
+        assertTrue(room.setDateRate(FIRST_NIGHT + 1000, 1.5));
+        room.addReservation("Guest", FIRST_NIGHT, FIRST_NIGHT + 2);
+
+        Reservation later = room.addReservation("Guest", FIRST_NIGHT + 999, FIRST_NIGHT + 1001);
+
+        assertEquals(2500.0, later.getTotalPrice());
+        assertFalse(room.areDatesAvailable(FIRST_NIGHT + 1000, FIRST_NIGHT + 1001));
+        assertTrue(room.areDatesAvailable(FIRST_NIGHT + 2, FIRST_NIGHT + 999));
+        assertEquals(1.0, room.getRate(FIRST_NIGHT + 3000));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests setting the rates of ranges of dates for rooms and hotels.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The date rates test class.
+ */
+public class DateRatesTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night repriced.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that a room's range of rates prices its stays, and that empty
+     * ranges and rates outside 50% to 150% are refused.
+     */
+    @Test
+    public void setsARoomsRange()
+    {
+        Room room = newHotel().getRoom(0);
+        long version = room.getVersion();
+
+        assertFalse(room.setDateRates(NIGHT + 5, NIGHT + 5, 1.2));
+        assertFalse(room.setDateRates(NIGHT, NIGHT + 5, 0.4));
+        assertFalse(room.setDateRates(NIGHT, NIGHT + 5, 1.6));
+        assertEquals(version, room.getVersion());
+
+        assertTrue(room.setDateRates(NIGHT, NIGHT + 300, 0.5));
+        assertTrue(room.setDateRates(NIGHT + 100, NIGHT + 110, 1.0));
+
+        assertEquals(0.5, room.getRate(NIGHT + 299));
+        assertEquals(1.0, room.getRate(NIGHT + 300));
+        assertEquals(1.0, room.getRate(NIGHT + 105));
+        assertEquals(290, room.getRatedDates().length);
+        assertEquals(1000.0 * (0.5 * 2 + 1.0 * 2), room.quote(NIGHT + 98, NIGHT + 102));
+    }
+
+    /**
+     * Checks that a hotel's range of rates reaches only the rooms of the
+     * given type, or every room if no type is given.
+     */
+    @Test
+    public void setsAHotelsRange()
+    {
+        Hotel hotel = newHotel();
+        Room standard = hotel.getRoom(0);
+        Room deluxe = hotel.getRoom(2);
+
+        assertTrue(hotel.setDateRates(NIGHT, NIGHT + 7, 1.5, RoomType.DELUXE));
+
+        assertEquals(1.0, standard.getRate(NIGHT));
+        assertEquals(1.5, deluxe.getRate(NIGHT + 6));
+
+        assertTrue(hotel.setDateRates(NIGHT + 3, NIGHT + 10, 0.5, null));
+
+        assertEquals(0.5, standard.getRate(NIGHT + 3));
+        assertEquals(1.5, deluxe.getRate(NIGHT + 2));
+        assertEquals(0.5, deluxe.getRate(NIGHT + 9));
+        assertFalse(hotel.setDateRates(NIGHT, NIGHT + 10, 2.0, null));
+        assertFalse(hotel.setDateRates(NIGHT + 10, NIGHT, 1.0, null));
+    }
+
+    /**
+     * Checks that a hotel-wide change of rates never splits a stay booked
+     * at the same time, so each stay is priced wholly at the old rates or
+     * wholly at the new.
+     * 
+     * @throws Exception If the repricing thread fails.
+     */
+    @Test
+    public void neverSplitsAStay() throws Exception
+    {
+        Hotel hotel = newHotel();
+        Room room = hotel.getRoom(0);
+        BookingEngine engine = BookingEngine.getInstance();
+
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread repricer = new Thread(() ->
+        {
+            for (int i = 0; !isDone.get(); i++)
+            {
+                hotel.setDateRates(NIGHT, NIGHT + 4000, (i % 2 == 0) ? 1.5 : 0.5,
+                                   RoomType.STANDARD);
+            }
+        });
+        repricer.start();
+
+        try
+        {
+            for (int night = NIGHT; night < NIGHT + 4000; night += 2)
+            {
+                Reservation reservation = engine.reserve(room, "Guest", night, night + 2);
+                double rate = reservation.getRate(night);
+
+                assertEquals(rate, reservation.getRate(night + 1));
+                assertEquals(room.getBasePrice() * rate * 2, reservation.getTotalPrice(), 1e-9);
+            }
+        }
+        finally
+        {
+            isDone.set(true);
+            repricer.join();
+        }
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new hotel, outside the system, with two standard rooms and a
+     * deluxe room, at 1000 a night.
+     * 
+     * @return {Hotel}
+     */
+    private static Hotel newHotel()
+    {
+        Hotel hotel = new Hotel("Test", 1000.0, 3);
+
+        hotel.addRooms(RoomType.STANDARD, 2);
+        hotel.addRooms(RoomType.DELUXE, 1);
+        return hotel;
+    }
+}
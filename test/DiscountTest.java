@@ -0,0 +1,129 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests registering discount codes and applying them to reservations.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The discount test class.
+ */
+public class DiscountTest
+{
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that each built-in code lowers the price as it did before the
+     * registry, and only once.
+     */
+    @Test
+    public void appliesEachCodeOnce()
+    {
+        Room room = newRoom();
+        int checkIn = day(2030, 1, 12);
+
+        Reservation reservation = new Reservation("Guest", room, checkIn, checkIn + 7);
+
+        assertTrue(reservation.setDiscount("I_WORK_HERE"));
+        assertEquals(7 * 1299.0 * 0.90, reservation.getTotalPrice(), 1e-9);
+        assertFalse(reservation.setDiscount("I_WORK_HERE"));
+
+        assertTrue(reservation.setDiscount("STAY4_GET1"));
+        assertEquals(6 * 1299.0 - 0.7 * 1299.0, reservation.getTotalPrice(), 1e-9);
+
+        assertTrue(reservation.setDiscount("PAYDAY"));
+        assertEquals((6 * 1299.0 - 0.7 * 1299.0) * 0.93, reservation.getTotalPrice(), 1e-9);
+
+        assertFalse(reservation.setDiscount("NO_SUCH_CODE"));
+        assertEquals(3, reservation.getNumOfCodes());
+        assertEquals("I_WORK_HERE", reservation.getCode(0));
+        assertEquals("PAYDAY", reservation.getCode(2));
+        assertEquals(0L, reservation.getAvailableCodes() & (1L << Discount.getId("PAYDAY")));
+    }
+
+    /**
+     * Checks which stays may use the codes limited by their dates.
+     */
+    @Test
+    public void checksEligibilityByDates()
+    {
+        Discount stay = Discount.getDiscount(Discount.getId("STAY4_GET1"));
+        Discount payday = Discount.getDiscount(Discount.getId("PAYDAY"));
+
+        assertFalse(stay.isEligible(day(2030, 1, 1), day(2030, 1, 5)));
+        assertTrue(stay.isEligible(day(2030, 1, 1), day(2030, 1, 6)));
+
+        // The check-out date is not a night of the stay.
+        assertFalse(payday.isEligible(day(2030, 1, 10), day(2030, 1, 15)));
+        assertTrue(payday.isEligible(day(2030, 1, 15), day(2030, 1, 16)));
+        assertTrue(payday.isEligible(day(2030, 1, 29), day(2030, 1, 31)));
+        assertFalse(payday.isEligible(day(2030, 1, 31), day(2030, 2, 15)));
+
+        // February has no 30th.
+        assertFalse(payday.isEligible(day(2030, 2, 16), day(2030, 3, 15)));
+        assertTrue(payday.isEligible(day(2030, 2, 16), day(2030, 3, 16)));
+    }
+
+    /**
+     * Checks that a code registered later may be used by reservations made
+     * before it, and that a code is only registered once.
+     */
+    @Test
+    public void usesCodesRegisteredLater()
+    {
+        Room room = newRoom();
+        int checkIn = day(2030, 1, 1);
+
+        Reservation reservation = new Reservation("Guest", room, checkIn, checkIn + 2);
+        int id = Discount.register("TEST_HALF",
+                                   (from, to) -> to - from >= 2,
+                                   (booked, totalPrice) -> totalPrice / 2);
+
+        assertTrue(id >= 0);
+        assertEquals(-1, Discount.register("TEST_HALF", (from, to) -> true,
+                                           (booked, totalPrice) -> 0));
+        assertEquals(id, Discount.getId("TEST_HALF"));
+        assertTrue(reservation.isEligible(id));
+        assertFalse(new Reservation("Guest", room, checkIn, checkIn + 1).isEligible(id));
+
+        assertTrue(reservation.setDiscount("TEST_HALF"));
+        assertEquals(1299.0, reservation.getTotalPrice(), 1e-9);
+        assertEquals(1L << id, reservation.getCodes());
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new room, of a hotel outside the system, without rates set.
+     * 
+     * @return {Room}
+     */
+    private static Room newRoom()
+    {
+        Hotel hotel = new Hotel("Test", 1299.0, 1);
+
+        hotel.addRooms(RoomType.STANDARD, 1);
+        return hotel.getRoom(0);
+    }
+
+    /**
+     * Returns a date in epoch days.
+     * 
+     * @param year {int} The year.
+     * @param month {int} The month.
+     * @param dayOfMonth {int} The day of the month.
+     * @return {int}
+     */
+    private static int day(int year, int month, int dayOfMonth)
+    {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+}
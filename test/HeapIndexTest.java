@@ -0,0 +1,242 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests the system's indexes of reservations.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The heap index test class.
+ */
+public class HeapIndexTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Starts every test without hotels.
+     */
+    @BeforeEach
+    public void clearHotels()
+    {
+        Heap.getInstance().setHotels(new ArrayList<>());
+    }
+
+    /**
+     * Checks that a guest's reservations are found by name ignoring case,
+     * in order of check-in, and that guests are found by prefix.
+     */
+    @Test
+    public void findsReservationsByGuest()
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+
+        heap.addHotel("Guests", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Guests");
+        hotel.addRooms(RoomType.STANDARD, 2);
+
+        Reservation later = engine.reserve(hotel.getRoom(0), "Ann Lee", NIGHT + 5, NIGHT + 6);
+        Reservation earlier = engine.reserve(hotel.getRoom(1), "ann lee", NIGHT, NIGHT + 2);
+        Reservation other = engine.reserve(hotel.getRoom(0), "Anna Cruz", NIGHT, NIGHT + 1);
+        engine.reserve(hotel.getRoom(1), "Ben", NIGHT + 5, NIGHT + 6);
+
+        assertEquals(List.of(earlier, later), heap.getReservations("ANN LEE"));
+        assertEquals(List.of("Ann Lee", "Anna Cruz"), heap.findGuestNames("an", 5));
+        assertEquals(List.of("Ann Lee"), heap.findGuestNames("an", 1));
+
+        engine.cancel(other);
+
+        assertEquals(List.of("Ann Lee"), heap.findGuestNames("an", 5));
+        assertEquals(0, heap.getReservations("Anna Cruz").size());
+    }
+
+    /**
+     * Checks that bookings made while their hotel is renamed over and over
+     * are all indexed.
+     * 
+     * @throws Exception If the renaming thread fails.
+     */
+    @Test
+    public void indexesBookingsDuringRenames() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+
+        heap.addHotel("Renamed 0", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Renamed 0");
+        hotel.addRooms(RoomType.STANDARD, 10);
+
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread renamer = new Thread(() ->
+        {
+            for (int i = 0; !isDone.get(); i++)
+            {
+                heap.renameHotel("Renamed " + (i % 2), "Renamed " + ((i + 1) % 2));
+            }
+        });
+        renamer.start();
+
+        ArrayList<Reservation> reservations = new ArrayList<>();
+
+        try
+        {
+            for (int night = NIGHT; night < NIGHT + 2000; night++)
+            {
+                reservations.add(engine.reserve(hotel.getRoom(night % 10), "Renamed Guest",
+                                                night, night + 1));
+            }
+        }
+        finally
+        {
+            isDone.set(true);
+            renamer.join();
+        }
+
+        assertEquals(reservations.size(), heap.getReservations("Renamed Guest").size());
+
+        for (Reservation reservation : reservations)
+        {
+            assertEquals(reservation, heap.getReservation(reservation.getId()));
+        }
+    }
+
+    /**
+     * Checks that a guest's set of reservations stays complete while
+     * several threads book and cancel for the same guest.
+     * 
+     * @throws Exception If a booking thread fails.
+     */
+    @Test
+    public void keepsEachGuestComplete() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+
+        heap.addHotel("Same Guest", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Same Guest");
+        hotel.addRooms(RoomType.STANDARD, 8);
+
+        Thread[] threads = new Thread[8];
+        List<List<Reservation>> kept = new ArrayList<>();
+
+        for (int i = 0; i < threads.length; i++)
+        {
+            Room room = hotel.getRoom(i);
+            List<Reservation> mine = new ArrayList<>();
+
+            kept.add(mine);
+            threads[i] = new Thread(() ->
+            {
+                BookingEngine engine = BookingEngine.getInstance();
+
+                // Each booking is cancelled at once, so the guest keeps emptying out.
+                for (int night = NIGHT; night < NIGHT + 3000; night++)
+                {
+                    engine.cancel(engine.reserve(room, "Same Guest", night, night + 1));
+                }
+                mine.add(engine.reserve(room, "Same Guest", NIGHT, NIGHT + 1));
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        ArrayList<Reservation> found = heap.getReservations("Same Guest");
+
+        assertEquals(threads.length, found.size());
+
+        for (List<Reservation> mine : kept)
+        {
+            assertTrue(found.contains(mine.get(0)));
+        }
+    }
+
+    /**
+     * Checks that reservations are cancelled and discounted by id, and that
+     * a room keeps its other reservations when one is removed.
+     */
+    @Test
+    public void findsReservationsById()
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+
+        heap.addHotel("Ids", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Ids");
+        hotel.addRooms(RoomType.STANDARD, 1);
+
+        Room room = hotel.getRoom(0);
+        Reservation first = engine.reserve(room, "Guest", NIGHT, NIGHT + 1);
+        Reservation second = engine.reserve(room, "Guest", NIGHT + 1, NIGHT + 2);
+        Reservation third = engine.reserve(room, "Guest", NIGHT + 2, NIGHT + 3);
+
+        assertTrue(first.getId() < second.getId() && second.getId() < third.getId());
+        assertTrue(engine.setDiscount(second.getId(), "I_WORK_HERE"));
+        assertEquals(900.0, second.getTotalPrice(), 1e-9);
+
+        assertTrue(engine.cancel(first.getId()));
+        assertFalse(engine.cancel(first.getId()));
+        assertNull(heap.getReservation(first.getId()));
+        assertFalse(engine.setDiscount(first.getId(), "I_WORK_HERE"));
+
+        // The room's last reservation fills the freed position.
+        assertEquals(2, room.getNumOfReservations());
+        assertEquals(third, room.getReservation(0));
+        assertEquals(second, room.getReservation(1));
+        assertTrue(room.areDatesAvailable(NIGHT, NIGHT + 1));
+
+        assertTrue(engine.cancel(third.getId()));
+        assertEquals(1, room.getNumOfReservations());
+        assertEquals(second, room.getReservation(0));
+
+        heap.removeHotel("Ids");
+
+        assertNull(heap.getReservation(second.getId()));
+    }
+
+    /**
+     * Checks that a restored reservation keeps its id and that later
+     * reservations are given ids after it.
+     */
+    @Test
+    public void keepsRestoredIds()
+    {
+        Heap heap = Heap.getInstance();
+
+        heap.addHotel("Restored", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Restored");
+        hotel.addRooms(RoomType.STANDARD, 1);
+
+        Room room = hotel.getRoom(0);
+        long id = room.addReservation("Guest", NIGHT, NIGHT + 1).getId() + 1_000_000;
+        Reservation restored = room.addReservation(new Reservation(id, "Guest", room,
+                                                                   NIGHT + 1, NIGHT + 2));
+
+        assertEquals(id, restored.getId());
+        assertEquals(restored, heap.getReservation(id));
+        assertTrue(room.addReservation("Guest", NIGHT + 2, NIGHT + 3).getId() > id);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests adding and removing the rooms of a hotel and counting them by type.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The hotel rooms test class.
+ */
+public class HotelRoomsTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The night booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that rooms with reservations are never removed.
+     */
+    @Test
+    public void refusesToRemoveBookedRooms()
+    {
+        Hotel hotel = newHotel();
+        Room booked = hotel.getRoom(1);
+
+        booked.addReservation("Guest", NIGHT, NIGHT + 2);
+
+        assertFalse(hotel.removeRooms(1));
+        assertEquals(2, hotel.getNumOfRooms());
+        assertEquals(1, hotel.getNumOfAvailRooms());
+        assertEquals(1, hotel.getNumOfFreeRooms(RoomType.STANDARD, NIGHT));
+        assertEquals(booked, hotel.getRoom("A-2"));
+    }
+
+    /**
+     * Checks that a removed room's later changes never reach the hotel or
+     * the room that replaced it.
+     */
+    @Test
+    public void detachesRemovedRooms()
+    {
+        Hotel hotel = newHotel();
+        Room removed = hotel.getRoom(1);
+
+        assertTrue(hotel.removeRooms(1));
+        assertNull(removed.getHotel());
+
+        assertTrue(hotel.addRooms(RoomType.DELUXE, 1));
+        Room replacement = hotel.getRoom(1);
+        replacement.addReservation("Guest", NIGHT, NIGHT + 2);
+        double earnings = hotel.getTotalPrice();
+
+        Reservation stale = removed.addReservation("Guest", NIGHT, NIGHT + 2);
+        removed.removeReservation(stale);
+
+        assertEquals(1, hotel.getNumOfAvailRooms());
+        assertEquals(earnings, hotel.getTotalPrice());
+        assertEquals(0, hotel.getNumOfFreeRooms(RoomType.DELUXE, NIGHT));
+        assertTrue(hotel.findAvailableRooms(NIGHT, NIGHT + 1, RoomType.DELUXE).isEmpty());
+        assertEquals(hotel.getPrice(RoomType.STANDARD), removed.getBasePrice());
+    }
+
+    /**
+     * Checks the rooms counted by type and the free rooms of each type per
+     * night, through bookings and cancellations.
+     */
+    @Test
+    public void countsRoomsByType()
+    {
+        Hotel hotel = newHotel();
+
+        hotel.addRooms(RoomType.DELUXE, 2);
+        hotel.addRooms(RoomType.EXECUTIVE, 1);
+
+        assertEquals(2, hotel.getNumOfRooms(RoomType.STANDARD));
+        assertEquals(2, hotel.getNumOfRooms(RoomType.DELUXE));
+        assertEquals(1, hotel.getNumOfRooms(RoomType.EXECUTIVE));
+        assertEquals(1299.0 * 1.20, hotel.getRoom(2).getBasePrice(), 1e-9);
+        assertEquals(1299.0 * 1.35, hotel.getPrice(RoomType.EXECUTIVE), 1e-9);
+
+        Reservation deluxe = hotel.getRoom(2).addReservation("Guest", NIGHT, NIGHT + 2);
+        hotel.getRoom(3).addReservation("Guest", NIGHT + 1, NIGHT + 3);
+
+        assertEquals(1, hotel.getNumOfFreeRooms(RoomType.DELUXE, NIGHT));
+        assertEquals(0, hotel.getNumOfFreeRooms(RoomType.DELUXE, NIGHT + 1));
+        assertEquals(1, hotel.getNumOfFreeRooms(RoomType.DELUXE, NIGHT + 2));
+        assertEquals(2, hotel.getNumOfFreeRooms(RoomType.STANDARD, NIGHT + 1));
+        assertTrue(hotel.findAvailableRooms(NIGHT, NIGHT + 2, RoomType.DELUXE).isEmpty());
+        assertEquals(3, hotel.findAvailableRooms(NIGHT + 1, NIGHT + 2, null).size());
+
+        hotel.getRoom(2).removeReservation(deluxe);
+
+        assertEquals(1, hotel.getNumOfFreeRooms(RoomType.DELUXE, NIGHT + 1));
+        assertEquals(hotel.getRoom(2),
+                     hotel.findAvailableRooms(NIGHT, NIGHT + 2, RoomType.DELUXE).get(0));
+    }
+
+    /**
+     * Checks that saved type names are read back as room types, with names
+     * that are not a type read as standard.
+     */
+    @Test
+    public void readsTypesByName()
+    {
+        assertEquals(RoomType.EXECUTIVE, RoomType.fromName("EXECUTIVE"));
+        assertEquals(RoomType.STANDARD, RoomType.fromName("Presidential"));
+        assertEquals(RoomType.STANDARD, RoomType.fromName(null));
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new hotel, outside the system, with two standard rooms.
+     * 
+     * @return {Hotel}
+     */
+    private static Hotel newHotel()
+    {
+        Hotel hotel = new Hotel("Test", 1299.0, 2);
+
+        hotel.addRooms(RoomType.STANDARD, 2);
+        return hotel;
+    }
+}
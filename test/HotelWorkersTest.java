@@ -0,0 +1,154 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests changing hotels through their workers and reading their views.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The hotel workers test class.
+ */
+public class HotelWorkersTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that each published view shows every change made before it,
+     * whether to a room or to the whole hotel.
+     */
+    @Test
+    public void viewsFollowEveryChange()
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+
+        Heap.getInstance().addHotel("Worker View", 1000.0, 1);
+        workers.addRooms("Worker View", RoomType.STANDARD, 3).join();
+
+        HotelView empty = workers.getView("Worker View");
+        Reservation reservation = workers.reserve("Worker View", "A-2", "Guest",
+                                                  NIGHT, NIGHT + 3).join();
+        HotelView booked = workers.getView("Worker View");
+
+        assertNotNull(reservation);
+        assertTrue(empty.isAvailable(1, NIGHT, NIGHT + 3));
+        assertFalse(booked.isAvailable(1, NIGHT, NIGHT + 3));
+        assertTrue(booked.isAvailable(1, NIGHT + 3, NIGHT + 4));
+        assertEquals(1, booked.getNumOfReservations(1));
+        assertEquals(0, booked.getNumOfReservations(0));
+        assertEquals(reservation.getTotalPrice(), booked.getTotalPrice());
+
+        workers.submit("Worker View", hotel ->
+        {
+            hotel.setBasePrice(2000.0);
+            return null;
+        }).join();
+        workers.removeRooms("Worker View", 1).join();
+
+        HotelView repriced = workers.getView("Worker View");
+
+        assertEquals(2, repriced.getNumOfRooms());
+        assertEquals(2000.0, repriced.getRoomBasePrice(0));
+        assertEquals(2000.0, repriced.getRoomBasePrice(1));
+        assertFalse(repriced.isAvailable(1, NIGHT, NIGHT + 3));
+
+        assertTrue(workers.cancel("Worker View", reservation.getId()).join());
+        assertTrue(workers.getView("Worker View").isAvailable(1, NIGHT, NIGHT + 3));
+    }
+
+    /**
+     * Checks that a worker books its hotel's rooms without waiting for their
+     * locks in BookingEngine.
+     * 
+     * @throws Exception If the booking fails.
+     */
+    @Test
+    public void booksWithoutRoomLocks() throws Exception
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+
+        Heap.getInstance().addHotel("Worker Lock", 1000.0, 1);
+        workers.addRooms("Worker Lock", RoomType.STANDARD, 1).join();
+
+        Room room = Heap.getInstance().getHotel("Worker Lock").getRoom(0);
+
+        // Holds the room's lock for as long as the worker takes to book the room.
+        Reservation reservation = BookingEngine.getInstance().read(room, locked ->
+        {
+            try
+            {
+                return workers.reserve("Worker Lock", locked.getName(), "Guest",
+                                       NIGHT, NIGHT + 1).get(10, TimeUnit.SECONDS);
+            }
+            catch (Exception e)
+            {
+                throw new AssertionError("The worker waited for the room's lock.", e);
+            }
+        });
+
+        assertNotNull(reservation);
+        assertEquals(1, room.getNumOfReservations());
+    }
+
+    /**
+     * Checks that messages sent while the workers are paused only run once
+     * the pause ends.
+     */
+    @Test
+    public void waitsWhilePaused()
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+
+        Heap.getInstance().addHotel("Worker Pause", 1000.0, 1);
+        workers.addRooms("Worker Pause", RoomType.STANDARD, 1).join();
+
+        CompletableFuture<Reservation> reservation = BookingEngine.getInstance().pause(() ->
+        {
+            CompletableFuture<Reservation> sent = workers.reserve("Worker Pause", "A-1", "Guest",
+                                                                  NIGHT, NIGHT + 1);
+
+            assertThrows(Exception.class, () -> sent.get(50, TimeUnit.MILLISECONDS));
+            return sent;
+        });
+
+        assertNotNull(reservation.join());
+    }
+
+    /**
+     * Checks that a failing change completes its result with the error and
+     * leaves the worker running.
+     */
+    @Test
+    public void survivesFailingChanges()
+    {
+        HotelWorkers workers = HotelWorkers.getInstance();
+
+        Heap.getInstance().addHotel("Worker Error", 1000.0, 1);
+
+        CompletableFuture<Object> failed = workers.submit("Worker Error", hotel ->
+        {
+            throw new IllegalStateException("The change failed.");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertTrue(workers.addRooms("Worker Error", RoomType.STANDARD, 1).join());
+        assertEquals(1, workers.getView("Worker Error").getNumOfRooms());
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests recording changes to the journal and recovering from it.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The journal test class.
+ */
+public class JournalTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    @TempDir
+    Path folder; // Holds the journal and snapshot files.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Starts every test without hotels.
+     */
+    @BeforeEach
+    public void clearHotels()
+    {
+        Heap.getInstance().setHotels(new ArrayList<>());
+    }
+
+    /**
+     * Stops recording changes after every test.
+     * 
+     * @throws IOException If the journal cannot be closed.
+     */
+    @AfterEach
+    public void closeJournal() throws IOException
+    {
+        Journal.getInstance().close();
+    }
+
+    /**
+     * Checks that replaying a journal restores every recorded change.
+     * 
+     * @throws Exception If the journal cannot be written or read.
+     */
+    @Test
+    public void replaysEveryChange() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+        Journal journal = Journal.getInstance();
+        Path path = folder.resolve("system.journal");
+
+        journal.open(path);
+        heap.addHotel("Log", 1000.0, 1);
+        heap.addHotel("Gone", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Log");
+        hotel.addRooms(RoomType.STANDARD, 2);
+        hotel.addRooms(RoomType.DELUXE, 1);
+        hotel.setDateRates(NIGHT, NIGHT + 5, 1.5, RoomType.DELUXE);
+        hotel.getRoom(1).setBasePrice(800.0);
+
+        Reservation kept = engine.reserve(hotel.getRoom(2), "Ann", NIGHT, NIGHT + 4);
+        Reservation cancelled = engine.reserve(hotel.getRoom(0), "Ben", NIGHT, NIGHT + 2);
+        engine.setDiscount(kept, "STAY4_GET1");
+        engine.cancel(cancelled);
+        engine.reserve(hotel.getRoom(1), "Cy", NIGHT - 10, NIGHT - 8);
+        engine.archive(hotel, NIGHT - 5);
+
+        // Later prices must not reprice the stays recorded before them.
+        hotel.setBasePrice(1200.0);
+        heap.removeHotel("Gone");
+        heap.renameHotel("Log", "Book");
+        journal.close();
+
+        String expected = SnapshotTest.describe();
+
+        heap.setHotels(new ArrayList<>());
+        journal.recover(folder.resolve("missing.snapshot"), path);
+
+        assertEquals(expected, SnapshotTest.describe());
+        assertEquals(kept.getTotalPrice(),
+                     heap.getReservation(kept.getId()).getTotalPrice());
+    }
+
+    /**
+     * Checks that checkpoints taken while a thread keeps booking and
+     * cancelling lose or repeat no change.
+     * 
+     * @throws Exception If the journal or a snapshot cannot be written or read.
+     */
+    @Test
+    public void checkpointsWhileBooking() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+        Journal journal = Journal.getInstance();
+        Path path = folder.resolve("busy.journal");
+        Path snapshot = folder.resolve("busy.snapshot");
+
+        journal.open(path);
+        heap.addHotel("Checkpoint", 1000.0, 1);
+        heap.getHotel("Checkpoint").addRooms(RoomType.STANDARD, 20);
+
+        Hotel hotel = heap.getHotel("Checkpoint");
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread booker = new Thread(() ->
+        {
+            BookingEngine engine = BookingEngine.getInstance();
+            ArrayList<Reservation> held = new ArrayList<>();
+            Random random = new Random(2);
+
+            for (int i = 0; !isDone.get(); i++)
+            {
+                int checkIn = NIGHT + random.nextInt(200);
+                Reservation reservation = engine.reserve(hotel.getRoom(random.nextInt(20)),
+                                                         "Guest", checkIn,
+                                                         checkIn + 1 + random.nextInt(5));
+
+                if (reservation != null)
+                    held.add(reservation);
+
+                if (held.size() > 300)
+                    engine.cancel(held.remove(random.nextInt(held.size())));
+
+                if (i % 50 == 0)
+                    hotel.setBasePrice(1000.0 + i % 7);
+            }
+        });
+        booker.start();
+
+        for (int i = 0; i < 20; i++)
+        {
+            journal.checkpoint(snapshot);
+            Thread.sleep(5);
+        }
+        isDone.set(true);
+        booker.join();
+        journal.close();
+
+        String expected = SnapshotTest.describe();
+
+        heap.setHotels(new ArrayList<>());
+        journal.recover(snapshot, path);
+
+        assertEquals(expected, SnapshotTest.describe());
+    }
+
+    /**
+     * Checks that reopening the journal clears the error of an earlier
+     * failed write.
+     * 
+     * @throws Exception If the journal cannot be written.
+     */
+    @Test
+    public void reopensAfterAnError() throws Exception
+    {
+        Journal journal = Journal.getInstance();
+        Field error = Journal.class.getDeclaredField("error");
+
+        journal.open(folder.resolve("failed.journal"));
+        Heap.getInstance().addHotel("Failed", 1000.0, 1);
+
+        error.setAccessible(true);
+        error.set(journal, new IOException("The disk is full."));
+
+        assertThrows(IOException.class, journal::sync);
+        assertThrows(IOException.class, journal::close);
+
+        Path path = folder.resolve("reopened.journal");
+
+        journal.open(path);
+        Heap.getInstance().addHotel("Reopened", 1000.0, 1);
+        journal.sync();
+        journal.close();
+
+        Heap.getInstance().setHotels(new ArrayList<>());
+        journal.recover(folder.resolve("missing.snapshot"), path);
+
+        assertEquals(1, Heap.getInstance().getHotels().size());
+        assertEquals("Reopened", Heap.getInstance().getHotels().get(0).getName());
+    }
+
+    /**
+     * Checks that a file which is not a journal of the current version is
+     * not replayed.
+     * 
+     * @throws Exception If the file cannot be written.
+     */
+    @Test
+    public void refusesOtherFiles() throws Exception
+    {
+        Path path = folder.resolve("other.journal");
+
+        Files.write(path, new byte[] { 0, 0, 0, 1, 0, 0, 0, 1, 0, 0 });
+
+        assertThrows(IOException.class,
+                     () -> Journal.getInstance().recover(folder.resolve("missing.snapshot"), path));
+        assertThrows(IOException.class, () -> Journal.getInstance().open(path));
+    }
+}
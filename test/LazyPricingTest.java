@@ -0,0 +1,106 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests that rooms follow their hotel's prices without being repriced.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The lazy pricing test class.
+ */
+public class LazyPricingTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that rooms read their hotel's new prices, while rooms with their
+     * own price and existing reservations keep theirs.
+     */
+    @Test
+    public void followsTheHotelUntilGivenAnOwnPrice()
+    {
+        Hotel hotel = new Hotel("Lazy", 1000.0, 3);
+
+        hotel.addRooms(RoomType.STANDARD, 2);
+        hotel.addRooms(RoomType.DELUXE, 1);
+
+        Room standard = hotel.getRoom(0);
+        Room own = hotel.getRoom(1);
+        Room deluxe = hotel.getRoom(2);
+
+        own.setBasePrice(777.0);
+        Reservation reservation = standard.addReservation("Guest", NIGHT, NIGHT + 2);
+        long version = deluxe.getVersion();
+
+        hotel.setBasePrice(2000.0);
+
+        assertEquals(2000.0, standard.getBasePrice());
+        assertEquals(2000.0 * RoomType.DELUXE.getMultiplier(), deluxe.getBasePrice());
+        assertEquals(777.0, own.getBasePrice());
+        assertTrue(own.hasOwnPrice());
+        assertFalse(standard.hasOwnPrice());
+        assertNotEquals(version, deluxe.getVersion());
+
+        assertEquals(1000.0, reservation.getNightlyPrice());
+        assertEquals(2000.0, reservation.getTotalPrice());
+        assertEquals(2000.0, hotel.getTotalPrice());
+    }
+
+    /**
+     * Checks that a stay booked while its hotel's price keeps changing is
+     * priced at a single nightly price throughout.
+     * 
+     * @throws Exception If the pricing thread fails.
+     */
+    @Test
+    public void pricesEachStayAtOnePrice() throws Exception
+    {
+        Hotel hotel = new Hotel("Lazy Race", 1000.0, 4);
+
+        hotel.addRooms(RoomType.STANDARD, 4);
+        hotel.setDateRates(NIGHT, NIGHT + 1000, 1.25, null);
+
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread pricer = new Thread(() ->
+        {
+            for (int i = 0; !isDone.get(); i++)
+            {
+                hotel.setBasePrice(1000.0 + i % 7);
+            }
+        });
+        pricer.start();
+
+        BookingEngine engine = BookingEngine.getInstance();
+        ArrayList<Reservation> reservations = new ArrayList<>();
+
+        for (int night = NIGHT; night < NIGHT + 2000; night += 2)
+        {
+            reservations.add(engine.reserve(hotel.getRoom(night % 4), "Guest",
+                                            night, night + 2));
+        }
+        isDone.set(true);
+        pricer.join();
+
+        for (Reservation reservation : reservations)
+        {
+            double sumOfRates = reservation.getRate(reservation.getCheckIn()) +
+                                reservation.getRate(reservation.getCheckIn() + 1);
+
+            assertEquals(reservation.getNightlyPrice() * sumOfRates, reservation.getTotalPrice());
+        }
+    }
+}
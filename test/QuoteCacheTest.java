@@ -0,0 +1,131 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests caching the availability and prices of rooms.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The quote cache test class.
+ */
+public class QuoteCacheTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night quoted.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Starts every test with an empty cache.
+     */
+    @BeforeEach
+    public void clearCache()
+    {
+        QuoteCache.getInstance().clear();
+    }
+
+    /**
+     * Checks that repeated lookups of an unchanged room are served by the
+     * cache.
+     */
+    @Test
+    public void servesRepeatedLookups()
+    {
+        QuoteCache cache = QuoteCache.getInstance();
+        Room room = newRoom();
+
+        assertEquals(2000.0, cache.quote(room, NIGHT, NIGHT + 2));
+        assertTrue(cache.isAvailable(room, NIGHT, NIGHT + 2));
+        assertEquals(2000.0, cache.quote(room, NIGHT, NIGHT + 2));
+
+        assertEquals(1, cache.getNumOfMisses());
+        assertEquals(2, cache.getNumOfHits());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+        assertEquals(1, cache.getNumOfEntries());
+    }
+
+    /**
+     * Checks that bookings, cancellations, and price changes of a room make
+     * its entries stale.
+     */
+    @Test
+    public void dropsStaleEntries()
+    {
+        QuoteCache cache = QuoteCache.getInstance();
+        Room room = newRoom();
+
+        assertTrue(cache.isAvailable(room, NIGHT, NIGHT + 2));
+
+        Reservation reservation = room.addReservation("Guest", NIGHT + 1, NIGHT + 3);
+
+        assertFalse(cache.isAvailable(room, NIGHT, NIGHT + 2));
+
+        room.removeReservation(reservation);
+
+        assertTrue(cache.isAvailable(room, NIGHT, NIGHT + 2));
+        assertEquals(2000.0, cache.quote(room, NIGHT, NIGHT + 2));
+
+        room.setDateRate(NIGHT, 1.5);
+
+        assertEquals(2500.0, cache.quote(room, NIGHT, NIGHT + 2));
+
+        room.getHotel().setBasePrice(2000.0);
+
+        assertEquals(5000.0, cache.quote(room, NIGHT, NIGHT + 2));
+        assertEquals(1, cache.getNumOfHits());
+    }
+
+    /**
+     * Checks that the least recently used entries are evicted once the cache
+     * is full.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed()
+    {
+        QuoteCache cache = QuoteCache.getInstance();
+        Room room = newRoom();
+
+        cache.quote(room, NIGHT, NIGHT + 1);
+        cache.quote(room, NIGHT, NIGHT + 2);
+
+        for (int i = 1; i < 4096; i++)
+        {
+            // Keeps the first stay recently used.
+            cache.quote(room, NIGHT, NIGHT + 1);
+            cache.quote(room, NIGHT + i, NIGHT + i + 1);
+        }
+
+        assertEquals(4096, cache.getNumOfEntries());
+
+        long numOfMisses = cache.getNumOfMisses();
+
+        cache.quote(room, NIGHT, NIGHT + 1);
+        assertEquals(numOfMisses, cache.getNumOfMisses());
+
+        cache.quote(room, NIGHT, NIGHT + 2);
+        assertEquals(numOfMisses + 1, cache.getNumOfMisses());
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new room, of a hotel outside the system, at 1000 a night.
+     * 
+     * @return {Room}
+     */
+    private static Room newRoom()
+    {
+        Hotel hotel = new Hotel("Test", 1000.0, 1);
+
+        hotel.addRooms(RoomType.STANDARD, 1);
+        return hotel.getRoom(0);
+    }
+}
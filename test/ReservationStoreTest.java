@@ -0,0 +1,136 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests storing completed reservations and reporting on them.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The reservation store test class.
+ */
+public class ReservationStoreTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Checks that every field of every stored reservation reads back as
+     * stored, including past the store's first growth.
+     */
+    @Test
+    public void keepsEveryField()
+    {
+        ReservationStore store = new ReservationStore();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            store.addReservation(1_000_000L + i, "Guest " + (i % 10), "A-" + (i % 50 + 1),
+                                 NIGHT + i, NIGHT + i + 2, 1000.0 + i, 2000.0 + i, i % 4);
+        }
+
+        assertEquals(1000, store.getNumOfReservations());
+
+        for (int row = 0; row < 1000; row++)
+        {
+            assertEquals(1_000_000L + row, store.getId(row));
+            assertEquals("Guest " + (row % 10), store.getGuestName(row));
+            assertEquals("A-" + (row % 50 + 1), store.getRoomName(row));
+            assertEquals(NIGHT + row, store.getCheckIn(row));
+            assertEquals(NIGHT + row + 2, store.getCheckOut(row));
+            assertEquals(1000.0 + row, store.getNightlyPrice(row));
+            assertEquals(2000.0 + row, store.getTotalPrice(row));
+            assertEquals(row % 4, store.getCodes(row));
+        }
+    }
+
+    /**
+     * Checks the revenue of a range of check-out dates and the rows found for
+     * a guest.
+     */
+    @Test
+    public void reportsByDateAndGuest()
+    {
+        ReservationStore store = new ReservationStore();
+
+        store.addReservation(1, "Ann", "A-1", NIGHT, NIGHT + 2, 100.0, 200.0, 0);
+        store.addReservation(2, "Ben", "A-2", NIGHT, NIGHT + 3, 100.0, 300.0, 0);
+        store.addReservation(3, "ann", "A-1", NIGHT + 3, NIGHT + 5, 100.0, 250.0, 0);
+
+        assertEquals(500.0, store.getRevenue(NIGHT + 2, NIGHT + 4));
+        assertEquals(750.0, store.getRevenue(NIGHT, NIGHT + 6));
+        assertEquals(0.0, store.getRevenue(NIGHT + 6, NIGHT + 9));
+        assertArrayEquals(new int[] { 0, 2 }, store.findRows("ANN"));
+        assertArrayEquals(new int[0], store.findRows("Cy"));
+    }
+
+    /**
+     * Checks that archiving moves a hotel's finished stays into its store,
+     * keeping their prices.
+     */
+    @Test
+    public void holdsArchivedStays()
+    {
+        Hotel hotel = new Hotel("Store", 1000.0, 2);
+
+        hotel.addRooms(RoomType.STANDARD, 2);
+
+        BookingEngine engine = BookingEngine.getInstance();
+        Reservation done = engine.reserve(hotel.getRoom(0), "Ann", NIGHT, NIGHT + 2);
+        engine.reserve(hotel.getRoom(1), "Ben", NIGHT + 10, NIGHT + 12);
+
+        assertEquals(1, engine.archive(hotel, NIGHT + 5));
+
+        ReservationStore history = hotel.getHistory();
+
+        assertEquals(1, history.getNumOfReservations());
+        assertEquals(done.getId(), history.getId(0));
+        assertEquals("A-1", history.getRoomName(0));
+        assertEquals(done.getTotalPrice(), history.getTotalPrice(0));
+        assertEquals(done.getTotalPrice() + hotel.getRoom(1).getReservation(0).getTotalPrice(),
+                     hotel.getTotalPrice());
+    }
+
+    /**
+     * Checks that archived stays of a hotel in the system leave its rooms,
+     * calendars, and indexes, while still counting towards its earnings.
+     */
+    @Test
+    public void archivesOutOfTheRooms()
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+
+        heap.addHotel("Store Archive", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Store Archive");
+        hotel.addRooms(RoomType.STANDARD, 1);
+
+        Room room = hotel.getRoom(0);
+        Reservation done = engine.reserve(room, "Archived Guest", NIGHT, NIGHT + 2);
+        Reservation kept = engine.reserve(room, "Archived Guest", NIGHT + 2, NIGHT + 4);
+        double earnings = hotel.getTotalPrice();
+
+        assertEquals(1, engine.archive(hotel, NIGHT + 2));
+
+        assertEquals(1, room.getNumOfReservations());
+        assertEquals(kept, room.getReservation(0));
+        assertTrue(room.areDatesAvailable(NIGHT, NIGHT + 2));
+        assertEquals(earnings, room.getTotalPrice());
+        assertEquals(earnings, hotel.getTotalPrice());
+        assertNull(heap.getReservation(done.getId()));
+        assertEquals(1, heap.getReservations("Archived Guest").size());
+        assertArrayEquals(new int[] { 0 }, hotel.getHistory().findRows("Archived Guest"));
+
+        heap.removeHotel("Store Archive");
+    }
+}
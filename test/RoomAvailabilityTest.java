@@ -0,0 +1,165 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests room availability against the original scan of the room's
+ * reservations.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The room availability test class.
+ * 
+ * Checks the room's occupancy calendar against the linear scan it replaced,
+ * kept exactly as it was. The scan missed stays enclosing a reservation,
+ * which the calendar rejects, so those stays are told apart and checked on
+ * their own.
+ */
+public class RoomAvailabilityTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int FIRST_NIGHT = 20000;  // The first night booked.
+    private static final int NUM_OF_NIGHTS = 1500; // The nights booked, spanning several segments.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Books and cancels random stays, checking every stay tried against the
+     * original scan. Stays enclosing a reservation must be refused even
+     * where the scan allowed them.
+     */
+    @Test
+    public void matchesScanOnRandomBookings()
+    {
+        for (int seed = 0; seed < 20; seed++)
+        {
+            Random random = new Random(seed);
+            Room room = newRoom();
+
+            for (int i = 0; i < 3000; i++)
+            {
+                int checkIn = FIRST_NIGHT + random.nextInt(NUM_OF_NIGHTS);
+                int checkOut = checkIn + 1 + random.nextInt(random.nextBoolean() ? 5 : 90);
+                boolean isAvailable = scan(room, checkIn, checkOut) &&
+                                      !enclosesAReservation(room, checkIn, checkOut);
+
+                assertEquals(isAvailable, room.areDatesAvailable(checkIn, checkOut),
+                             "seed " + seed + ", stay " + checkIn + " to " + checkOut);
+
+                if (isAvailable)
+                    room.addReservation("Guest", checkIn, checkOut);
+
+                // Cancels now and then, so freed nights are checked too.
+                if (room.getNumOfReservations() > 0 && random.nextInt(4) == 0)
+                    room.removeReservation(room.getReservation(random.nextInt(room.getNumOfReservations())));
+            }
+        }
+    }
+
+    /**
+     * Checks that a stay enclosing a reservation is not available, which the
+     * old scan allowed.
+     */
+    @Test
+    public void rejectsStaysEnclosingAReservation()
+    {
+        Room room = newRoom();
+
+        room.addReservation("Guest", FIRST_NIGHT + 10, FIRST_NIGHT + 12);
+
+        assertTrue(scan(room, FIRST_NIGHT + 5, FIRST_NIGHT + 20));
+        assertFalse(room.areDatesAvailable(FIRST_NIGHT + 5, FIRST_NIGHT + 20));
+        assertFalse(room.areDatesAvailable(FIRST_NIGHT + 10, FIRST_NIGHT + 12));
+        assertFalse(room.areDatesAvailable(FIRST_NIGHT + 11, FIRST_NIGHT + 12));
+    }
+
+    /**
+     * Checks that stays ending on a reservation's check-in date or starting on
+     * its check-out date are available.
+     */
+    @Test
+    public void acceptsStaysTouchingAReservation()
+    {
+        Room room = newRoom();
+
+        room.addReservation("Guest", FIRST_NIGHT + 10, FIRST_NIGHT + 12);
+
+        assertTrue(room.areDatesAvailable(FIRST_NIGHT + 5, FIRST_NIGHT + 10));
+        assertTrue(room.areDatesAvailable(FIRST_NIGHT + 12, FIRST_NIGHT + 20));
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Returns a new room of a hotel outside the system.
+     * 
+     * @return {Room}
+     */
+    private static Room newRoom()
+    {
+        Hotel hotel = new Hotel("Test", 1299.0, 1);
+
+        hotel.addRooms(RoomType.STANDARD, 1);
+        return hotel.getRoom(0);
+    }
+
+    /**
+     * Checks if a room is available by scanning its reservations, exactly as
+     * the room did before it kept an occupancy calendar.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {boolean}
+     */
+    private static boolean scan(Room room, int checkIn, int checkOut)
+    {
+        for (int i = 0; i < room.getNumOfReservations(); i++)
+        {
+            /*
+             * Checks if the given check-in date is within the reservation's
+             * check-in date and the day before the reservation's check-out date.
+             * 
+             * Checks if the given check-out date is within the day after the
+             * reservation's check-in date and the reservation's check-out date.
+             */
+            if ((checkIn >= room.getReservation(i).getCheckIn() &&
+                checkIn < room.getReservation(i).getCheckOut()) ||
+
+                (checkOut > room.getReservation(i).getCheckIn() &&
+                checkOut <= room.getReservation(i).getCheckOut()))
+
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a stay starts before and ends after one of a room's
+     * reservations, the case the original scan missed.
+     * 
+     * @param room {Room} The room.
+     * @param checkIn {int} The check-in date.
+     * @param checkOut {int} The check-out date.
+     * @return {boolean}
+     */
+    private static boolean enclosesAReservation(Room room, int checkIn, int checkOut)
+    {
+        for (int i = 0; i < room.getNumOfReservations(); i++)
+        {
+            Reservation reservation = room.getReservation(i);
+
+            if (checkIn < reservation.getCheckIn() && checkOut > reservation.getCheckOut())
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests searching the available rooms of every hotel.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The room search test class.
+ */
+public class RoomSearchTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night searched.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Starts every test without hotels.
+     */
+    @BeforeEach
+    public void clearHotels()
+    {
+        Heap.getInstance().setHotels(new ArrayList<>());
+    }
+
+    /**
+     * Checks that the cheapest available rooms are found across hotels, in
+     * order of price, then hotel name, then room order.
+     */
+    @Test
+    public void findsTheCheapestRooms()
+    {
+        Heap heap = Heap.getInstance();
+
+        heap.addHotel("Search B", 1000.0, 1);
+        heap.addHotel("Search A", 1000.0, 1);
+        heap.addHotel("Search C", 3000.0, 1);
+        heap.getHotel("Search B").addRooms(RoomType.STANDARD, 2);
+        heap.getHotel("Search A").addRooms(RoomType.STANDARD, 2);
+        heap.getHotel("Search C").addRooms(RoomType.STANDARD, 2);
+        BookingEngine.getInstance().reserve(heap.getHotel("Search A").getRoom(0), "Guest",
+                                            NIGHT + 1, NIGHT + 2);
+
+        ArrayList<RoomSearch.Result> results =
+            RoomSearch.findCheapest(RoomType.STANDARD, NIGHT, NIGHT + 2, 5000.0, 3);
+
+        assertEquals(3, results.size());
+        assertEquals("Search A", results.get(0).getHotelName());
+        assertEquals("A-2", results.get(0).getRoom().getName());
+        assertEquals("Search B", results.get(1).getHotelName());
+        assertEquals("A-1", results.get(1).getRoom().getName());
+        assertEquals("Search B", results.get(2).getHotelName());
+        assertEquals("A-2", results.get(2).getRoom().getName());
+        assertEquals(2000.0, results.get(0).getPrice());
+
+        assertEquals(0, RoomSearch.findCheapest(RoomType.STANDARD, NIGHT, NIGHT + 2,
+                                                1999.0, 3).size());
+        assertEquals(0, RoomSearch.findCheapest(RoomType.DELUXE, NIGHT, NIGHT + 2,
+                                                5000.0, 3).size());
+    }
+
+    /**
+     * Checks that results keep their hotel's name once their room is
+     * removed, and that searching while rooms are removed never fails.
+     * 
+     * @throws Exception If the thread removing rooms fails.
+     */
+    @Test
+    public void keepsTheHotelNameOfRemovedRooms() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+
+        heap.addHotel("Search Removed", 1000.0, 1);
+
+        Hotel hotel = heap.getHotel("Search Removed");
+        hotel.addRooms(RoomType.STANDARD, 4);
+
+        List<RoomSearch.Result> found = Collections.synchronizedList(new ArrayList<>());
+
+        RoomSearch.findAll(null, NIGHT, NIGHT + 1, 5000.0, found::add);
+        hotel.removeRooms(4);
+
+        assertEquals(4, found.size());
+
+        for (RoomSearch.Result result : found)
+        {
+            assertNull(result.getRoom().getHotel());
+            assertEquals("Search Removed", result.getHotelName());
+        }
+
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread remover = new Thread(() ->
+        {
+            while (!isDone.get())
+            {
+                hotel.addRooms(RoomType.STANDARD, 50);
+                hotel.removeRooms(50);
+            }
+        });
+        remover.start();
+
+        try
+        {
+            for (int i = 0; i < 500; i++)
+            {
+                ArrayList<RoomSearch.Result> results =
+                    RoomSearch.findCheapest(null, NIGHT, NIGHT + 1, 5000.0, 10);
+
+                assertTrue(results.size() <= 10);
+            }
+        }
+        finally
+        {
+            isDone.set(true);
+            remover.join();
+        }
+    }
+}
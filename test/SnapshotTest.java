@@ -0,0 +1,246 @@
+/**
+ * @author Stephen M. Borja
+ * @author Mariella Jeanne A. Dellosa
+ * 
+ * Tests saving the system to a snapshot and loading it back.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The snapshot test class.
+ */
+public class SnapshotTest
+{
+    /* ------------------------------- ATTRIBUTES ------------------------------- */
+
+    private static final int NIGHT = 20000; // The first night booked.
+
+    @TempDir
+    Path folder; // Holds the snapshot files.
+
+    /* ---------------------------------- TESTS --------------------------------- */
+
+    /**
+     * Starts every test without hotels.
+     */
+    @BeforeEach
+    public void clearHotels()
+    {
+        Heap.getInstance().setHotels(new ArrayList<>());
+    }
+
+    /**
+     * Checks that a loaded snapshot holds exactly the saved hotels, rooms,
+     * prices, rates, reservations, codes, and archived stays.
+     * 
+     * @throws Exception If the snapshot cannot be saved or loaded.
+     */
+    @Test
+    public void roundTripsEveryField() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+        BookingEngine engine = BookingEngine.getInstance();
+
+        heap.addHotel("Snap", 1000.0, 1);
+        heap.addHotel("Shot", 1500.0, 1);
+
+        Hotel hotel = heap.getHotel("Snap");
+        hotel.addRooms(RoomType.STANDARD, 3);
+        hotel.addRooms(RoomType.EXECUTIVE, 2);
+        hotel.getRoom(1).setBasePrice(777.0);
+        hotel.setDateRates(NIGHT + 2, NIGHT + 9, 1.25, null);
+        hotel.getRoom(4).setDateRate(NIGHT, 0.5);
+        heap.getHotel("Shot").addRooms(RoomType.DELUXE, 1);
+
+        Reservation discounted = engine.reserve(hotel.getRoom(0), "Ann", NIGHT, NIGHT + 6);
+        engine.setDiscount(discounted, "STAY4_GET1");
+        engine.setDiscount(discounted, "I_WORK_HERE");
+        engine.reserve(hotel.getRoom(1), "Ben", NIGHT + 1, NIGHT + 3);
+        engine.reserve(hotel.getRoom(4), "Ann", NIGHT, NIGHT + 2);
+        engine.reserve(heap.getHotel("Shot").getRoom(0), "Cy", NIGHT, NIGHT + 1);
+        engine.reserve(hotel.getRoom(2), "Dee", NIGHT + 20, NIGHT + 25);
+        engine.archive(hotel, NIGHT + 3);
+
+        String saved = describe();
+        Path path = folder.resolve("system.snapshot");
+
+        Snapshot.save(path);
+        heap.setHotels(new ArrayList<>());
+        Snapshot.load(path);
+
+        assertEquals(saved, describe());
+        assertEquals(2, heap.getReservations("Ann").size() + heap.getReservations("Dee").size());
+        assertNotNull(heap.getReservation(discounted.getId()));
+        assertEquals(2, heap.getHotel("Snap").getHistory().getNumOfReservations());
+    }
+
+    /**
+     * Checks that snapshots taken while a thread keeps booking and
+     * cancelling can all be loaded, and hold consistent hotels.
+     * 
+     * @throws Exception If a snapshot cannot be saved or loaded.
+     */
+    @Test
+    public void savesWhileBooking() throws Exception
+    {
+        Heap heap = Heap.getInstance();
+
+        heap.addHotel("Busy", 1000.0, 1);
+        heap.getHotel("Busy").addRooms(RoomType.STANDARD, 20);
+
+        Hotel hotel = heap.getHotel("Busy");
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread booker = new Thread(() ->
+        {
+            BookingEngine engine = BookingEngine.getInstance();
+            ArrayList<Reservation> held = new ArrayList<>();
+            Random random = new Random(1);
+
+            while (!isDone.get())
+            {
+                int checkIn = NIGHT + random.nextInt(200);
+                Reservation reservation = engine.reserve(hotel.getRoom(random.nextInt(20)),
+                                                         "Guest", checkIn,
+                                                         checkIn + 1 + random.nextInt(5));
+
+                if (reservation != null)
+                    held.add(reservation);
+
+                if (held.size() > 500)
+                    engine.cancel(held.remove(random.nextInt(held.size())));
+            }
+        });
+        booker.start();
+
+        ArrayList<Path> paths = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++)
+        {
+            Path path = folder.resolve("busy-" + i + ".snapshot");
+
+            Snapshot.save(path);
+            paths.add(path);
+        }
+        isDone.set(true);
+        booker.join();
+
+        for (Path path : paths)
+        {
+            Snapshot.load(path);
+            assertConsistent(heap.getHotel("Busy"));
+        }
+    }
+
+    /* --------------------------------- HELPERS -------------------------------- */
+
+    /**
+     * Checks that a hotel's counts and earnings agree with its rooms, and
+     * that no room is double-booked.
+     * 
+     * @param hotel {Hotel} The hotel.
+     */
+    private static void assertConsistent(Hotel hotel)
+    {
+        double earnings = 0;
+        int numOfAvailRooms = 0;
+
+        for (int i = 0; i < hotel.getNumOfRooms(); i++)
+        {
+            Room room = hotel.getRoom(i);
+            double roomEarnings = 0;
+
+            for (int j = 0; j < room.getNumOfReservations(); j++)
+            {
+                Reservation reservation = room.getReservation(j);
+
+                roomEarnings += reservation.getTotalPrice();
+
+                for (int k = j + 1; k < room.getNumOfReservations(); k++)
+                {
+                    Reservation other = room.getReservation(k);
+
+                    assertTrue(other.getCheckOut() <= reservation.getCheckIn() ||
+                               other.getCheckIn() >= reservation.getCheckOut());
+                }
+            }
+            assertEquals(roomEarnings, room.getTotalPrice(), 1e-6);
+
+            earnings += room.getTotalPrice();
+            numOfAvailRooms += (room.getNumOfReservations() == 0) ? 1 : 0;
+        }
+        assertEquals(earnings, hotel.getTotalPrice(), 1e-6);
+        assertEquals(numOfAvailRooms, hotel.getNumOfAvailRooms());
+    }
+
+    /**
+     * Returns a description of every hotel of the system, listing each saved
+     * field.
+     * 
+     * @return {String}
+     */
+    static String describe()
+    {
+        StringBuilder text = new StringBuilder();
+
+        for (Hotel hotel : Heap.getInstance().getHotels())
+        {
+            text.append(hotel.getName()).append(' ').append(hotel.getBasePrice()).append(' ')
+                .append(hotel.getTotalPrice()).append(' ').append(hotel.getNumOfAvailRooms())
+                .append('\n');
+
+            for (int i = 0; i < hotel.getNumOfRooms(); i++)
+            {
+                Room room = hotel.getRoom(i);
+
+                text.append(' ').append(room.getName()).append(' ').append(room.type())
+                    .append(' ').append(room.hasOwnPrice()).append(' ')
+                    .append(room.getBasePrice()).append(' ').append(room.getTotalPrice());
+
+                for (int date : room.getRatedDates())
+                {
+                    text.append(" @").append(date).append('=').append(room.getRate(date));
+                }
+
+                for (int j = 0; j < room.getNumOfReservations(); j++)
+                {
+                    Reservation reservation = room.getReservation(j);
+
+                    text.append(" [").append(reservation.getId()).append(' ')
+                        .append(reservation.getGuestName()).append(' ')
+                        .append(reservation.getCheckIn()).append('-')
+                        .append(reservation.getCheckOut()).append(' ')
+                        .append(reservation.getNightlyPrice()).append(' ')
+                        .append(reservation.getTotalPrice()).append(' ')
+                        .append(reservation.getCodes()).append(']');
+                }
+                text.append('\n');
+            }
+
+            ReservationStore history = hotel.getHistory();
+
+            for (int row = 0; row < history.getNumOfReservations(); row++)
+            {
+                text.append(" archived ").append(history.getId(row)).append(' ')
+                    .append(history.getGuestName(row)).append(' ')
+                    .append(history.getRoomName(row)).append(' ')
+                    .append(history.getCheckIn(row)).append('-')
+                    .append(history.getCheckOut(row)).append(' ')
+                    .append(history.getTotalPrice(row)).append(' ')
+                    .append(history.getCodes(row)).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}